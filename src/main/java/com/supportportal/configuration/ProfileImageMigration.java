@@ -0,0 +1,90 @@
+package com.supportportal.configuration;
+
+import static com.supportportal.constant.FileConstant.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import com.supportportal.domain.User;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.service.ProfileImageService;
+import com.supportportal.service.UserCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves profile images from the old per-user layout, {@code {image.legacy-folder}/{username}/{username}.jpg}
+ * served from {@code /user/image/{username}/{username}.jpg}, into the {@link ProfileImageService}. Each image
+ * is stored under its content id and the user's {@code profileImageId} and {@code profileImageUrl} are
+ * rewritten, keeping the scheme and host of the old URL. Users whose old file is gone get the placeholder
+ * avatar URL instead of a link that would never resolve. Migrated users no longer match, so this does nothing
+ * once every user has been moved; the old files are left in place.
+ */
+@Component
+public class ProfileImageMigration {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+	private final UserRepository userRepository;
+	private final UserCache userCache;
+	private final ProfileImageService profileImageService;
+	private final Path legacyFolder;
+
+	public ProfileImageMigration(UserRepository userRepository, UserCache userCache,
+			ProfileImageService profileImageService,
+			@Value("${image.legacy-folder:${user.home}/supportportal/user/}") String legacyFolder) {
+		this.userRepository = userRepository;
+		this.userCache = userCache;
+		this.profileImageService = profileImageService;
+		this.legacyFolder = Paths.get(legacyFolder).toAbsolutePath().normalize();
+	}
+
+	@PostConstruct
+	public void migrate() {
+		List<User> users = userRepository.findLegacyProfileImageUsers("%" + USER_IMAGE_PATH + "%/%",
+				"%" + DEFAULT_USER_IMAGE_PATH + "%");
+		int migrated = 0;
+		for (User user : users) {
+			try {
+				if (migrate(user)) {
+					migrated++;
+				}
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("Failed to migrate the profile image of {}: {}", user.getUsername(), e.getMessage());
+			}
+		}
+		if (!users.isEmpty()) {
+			LOGGER.info("Migrated {} of {} profile images from {}", migrated, users.size(), legacyFolder);
+		}
+	}
+
+	private boolean migrate(User user) throws IOException {
+		String username = user.getUsername();
+		String legacyPath = USER_IMAGE_PATH + username + FORWARD_SLASH + username + DOT + JPG_EXTENSION;
+		String profileImageUrl = user.getProfileImageUrl();
+		if (!profileImageUrl.endsWith(legacyPath)) {
+			return false;
+		}
+		String baseUrl = profileImageUrl.substring(0, profileImageUrl.length() - legacyPath.length());
+		Path legacyFile = legacyFolder.resolve(username).resolve(username + DOT + JPG_EXTENSION).normalize();
+		boolean found = legacyFile.startsWith(legacyFolder) && Files.isRegularFile(legacyFile);
+		if (found) {
+			String imageId = profileImageService.saveProfileImage(new FileSystemResource(legacyFile), Files.size(legacyFile));
+			user.setProfileImageId(imageId);
+			user.setProfileImageUrl(baseUrl + USER_IMAGE_PATH + imageId + DOT + JPG_EXTENSION);
+		} else {
+			user.setProfileImageUrl(baseUrl + DEFAULT_USER_IMAGE_PATH + username + DOT + JPG_EXTENSION);
+		}
+		userRepository.save(user);
+		userCache.evict(user.getId());
+		return found;
+	}
+}
@@ -0,0 +1,38 @@
+package com.supportportal.configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import com.supportportal.utility.RequestTimings;
+
+/**
+ * Records every Spring Data repository call as a {@code db} span of the request it runs on, named after the
+ * repository and method, e.g. {@code UserRepository.save}.
+ */
+@Configuration
+public class RequestTimingConfiguration {
+
+    private static final String DB_SPAN = "db";
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        RepositoryMethodInvocationListener listener = invocation -> RequestTimings.record(DB_SPAN,
+                invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                invocation.getDuration(TimeUnit.NANOSECONDS));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(
+                            repositoryFactory -> repositoryFactory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
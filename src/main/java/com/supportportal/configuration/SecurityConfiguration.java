@@ -1,8 +1,17 @@
 package com.supportportal.configuration;
 
+import static com.supportportal.constant.Authority.METRICS_READ;
+
 import com.supportportal.filter.JwtAccessDeniedHandler;
 import com.supportportal.filter.JwtAuthenticationEntryPoint;
 import com.supportportal.filter.JwtAuthorizationFilter;
+import com.supportportal.utility.AdaptiveBCryptPasswordEncoder;
+import com.supportportal.utility.BoundedExecutor;
+import com.supportportal.utility.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,13 +19,16 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfiguration {
 
+    private static final String PASSWORD_HASHING = "password-hashing";
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthorizationFilter jwtAuthorizationFilter;
@@ -31,8 +43,23 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder bCryptPasswordEncoder(
+            @Value("${security.bcrypt.strength:10}") int strength,
+            @Value("${security.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${security.bcrypt.target-hash-time-ms:250}") long targetHashTimeMillis,
+            @Value("${security.bcrypt.minimum-strength:8}") int minimumStrength,
+            @Value("${security.bcrypt.maximum-strength:14}") int maximumStrength,
+            @Value("${security.bcrypt.executor.threads:0}") int threads,
+            @Value("${security.bcrypt.executor.queue-capacity:64}") int queueCapacity,
+            @Value("${security.bcrypt.executor.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        if (calibrate) {
+            strength = AdaptiveBCryptPasswordEncoder.calibrate(targetHashTimeMillis, minimumStrength, maximumStrength);
+            LOGGER.info("Calibrated BCrypt strength to {} for a target hash time of {} ms", strength, targetHashTimeMillis);
+        }
+        BoundedExecutor hashingExecutor = new BoundedExecutor(PASSWORD_HASHING,
+                threads > 0 ? threads : BoundedExecutor.defaultThreads(), queueCapacity, retryAfterSeconds, meterRegistry);
+        return new BoundedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(strength), hashingExecutor, meterRegistry);
     }
 
     @Bean
@@ -53,12 +80,15 @@ public class SecurityConfiguration {
                 "/user/update",
                 "/user/find/**",                  
                 "/user/list",                     
+                "/user/list/stream",
                 "/user/resetPassword/**",         
                 "/user/delete/**",                 
                 "/user/updateProfileImage",        
-                "/user/image*/**"    
+                "/user/image*/**",
+                "/actuator/health"
                 
             ).permitAll()
+            .requestMatchers("/actuator/prometheus").hasAuthority(METRICS_READ)
             .anyRequest().authenticated()
             .and()
             .exceptionHandling()
@@ -0,0 +1,29 @@
+package com.supportportal.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which threads serve requests. With {@code spring.threads.virtual.enabled} on Java 21 or later, Tomcat,
+ * the application task executor and the scheduler run on virtual threads; on older runtimes Spring Boot quietly
+ * keeps platform threads, so the mismatch is logged here instead of going unnoticed.
+ */
+@Configuration
+public class ThreadingConfiguration {
+
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+    public ThreadingConfiguration(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            LOGGER.info("Handling requests on virtual threads");
+        } else if (environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+            LOGGER.warn("{} is set but Java {} has no virtual threads, handling requests on platform threads",
+                    VIRTUAL_THREADS_PROPERTY, Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.supportportal.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Largest request body a multipart endpoint accepts, as a data size such as {@code 1100KB}. Placeholders are
+ * resolved against the environment. Enforced by {@link UploadLimitInterceptor} before the body is parsed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UploadLimit {
+
+    String value();
+}
@@ -0,0 +1,47 @@
+package com.supportportal.configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects requests to {@link UploadLimit} endpoints whose declared Content-Length is over the limit. Multipart
+ * requests are resolved lazily, so this runs before the container reads or spools any of the body. Requests
+ * without a Content-Length are left to the container-wide {@code spring.servlet.multipart} limits.
+ */
+@Component
+public class UploadLimitInterceptor implements HandlerInterceptor {
+
+    private final ConcurrentHashMap<Method, Long> limits = new ConcurrentHashMap<>();
+    private final Environment environment;
+
+    public UploadLimitInterceptor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        UploadLimit uploadLimit = handlerMethod.getMethodAnnotation(UploadLimit.class);
+        if (uploadLimit == null) {
+            return true;
+        }
+        long maxBytes = limits.computeIfAbsent(handlerMethod.getMethod(),
+                method -> DataSize.parse(environment.resolveRequiredPlaceholders(uploadLimit.value())).toBytes());
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package com.supportportal.configuration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Schema changes that {@code ddl-auto: update} cannot make on its own. Depends on the entity manager factory
+ * so it runs after Hibernate has updated the schema.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserSchemaMigration {
+
+	private static final String USER_TABLE = "user";
+	private static final String AUTHORITIES_COLUMN = "authorities";
+	private static final String DROP_AUTHORITIES_COLUMN = "ALTER TABLE user DROP COLUMN authorities";
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+	private final JdbcTemplate jdbcTemplate;
+
+	public UserSchemaMigration(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@PostConstruct
+	public void migrate() {
+		if (columnExists(USER_TABLE, AUTHORITIES_COLUMN)) {
+			jdbcTemplate.execute(DROP_AUTHORITIES_COLUMN);
+			LOGGER.info("Dropped column {}.{}, authorities are now derived from the role", USER_TABLE, AUTHORITIES_COLUMN);
+		}
+	}
+
+	private boolean columnExists(String table, String column) {
+		Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			for (String tableName : new String[] { table, table.toUpperCase() }) {
+				for (String columnName : new String[] { column, column.toUpperCase() }) {
+					try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, tableName, columnName)) {
+						if (columns.next()) {
+							return true;
+						}
+					}
+				}
+			}
+			return false;
+		});
+		return Boolean.TRUE.equals(exists);
+	}
+}
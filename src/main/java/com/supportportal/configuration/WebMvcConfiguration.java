@@ -0,0 +1,20 @@
+package com.supportportal.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    private final UploadLimitInterceptor uploadLimitInterceptor;
+
+    public WebMvcConfiguration(UploadLimitInterceptor uploadLimitInterceptor) {
+        this.uploadLimitInterceptor = uploadLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(uploadLimitInterceptor);
+    }
+}
@@ -2,11 +2,12 @@ package com.supportportal.constant;
 
 public class Authority {
 	
+	public static final String METRICS_READ = "metrics:read";
 	public static final String[] USER_AUTHORITIES = {"user:read"};
 	public static final String[] HR_AUTHORITIES = {"user:read", "user:update"};
 	public static final String[] MANAGER_AUTHORITIES = {"user:read", "user:update"};
-	public static final String[] ADMIN_AUTHORITIES = {"user:read", "user:create","user:update"};
-	public static final String[] SUPER_ADMIN_AUTHORITIES = {"user:read", "user:create","user:update","user:delete"};
+	public static final String[] ADMIN_AUTHORITIES = {"user:read", "user:create","user:update", METRICS_READ};
+	public static final String[] SUPER_ADMIN_AUTHORITIES = {"user:read", "user:create","user:update","user:delete", METRICS_READ};
 	
 
 }
@@ -10,4 +10,11 @@ public class FileConstant {
     public static final String DOT = ".";
     public static final String FORWARD_SLASH = "/";
     public static final String TEMP_PROFILE_IMAGE_BASE_URL = "https://robohash.org/"; 
+    public static final String THUMBNAIL_SEPARATOR = "-";
+    public static final String DEFAULT_IMAGE_ID = "default";
+    public static final String DEFAULT_IMAGE_RESOURCE = "image/default.jpg";
+    public static final String IMAGE_TOO_LARGE = "The image exceeds the maximum allowed size of ";
+    public static final String IMAGE_DIMENSIONS_TOO_LARGE = "The image exceeds the maximum allowed dimensions of ";
+    public static final String UPLOAD_TOO_LARGE = "The upload exceeds the maximum allowed size";
+    public static final String NOT_AN_IMAGE = "The uploaded file is not a supported image";
 }
@@ -4,7 +4,7 @@ package com.supportportal.constant;
 public class SecurityConstant {
 
 	public static final long EXPIRATION_TIME =432_000_000; //5 days expressed in milliseconds
-	public static final String TOKEN_PREFIX = "Bearer";
+	public static final String TOKEN_PREFIX = "Bearer ";
 	public static final String JWT_TOKEN_HEADER = "Jwt-Token";
 	public static final String TOKEN_CANNOT_BE_VERIFIED = "Token cannot be verified";
 	public static final String GET_ARRAYS_LLC = "Get Arrays, LLC";
@@ -14,6 +14,7 @@ public class SecurityConstant {
 	public static final String ACCESS_DENITED_MESSAGE = "You do not have permission to access this page";
 	public static final String OPTIONS_HTTP_METHOD = "OPTIONS";
 	public static final String AUTHORIZATION = "Authorization";
+	public static final String TOO_MANY_LOGIN_ATTEMPTS = "Too many failed logins from your address. Please try again later";
 	//public static final String[] PUBLIC_URL = {"/user/login", "/user/register", "/user/resetpassword/**", "/user/image/**"};
 	public static final String[] PUBLIC_URL = {"/user/login","/user/register","/user/image/**"};
 //	public static final String[] PUBLIC_URL = {"**"};
@@ -7,6 +7,10 @@ public class UserImplConstant {
 	public static final String NO_USER_FOUND_BY_USERNAME = "No user found by username";
 	public static final String FOUND_USER_BY_USERNAME = "Returning found user by username";
 	public static final String NO_USER_FOUND_BY_EMAIL = "No user found for email";
+	public static final String UNIQUE_USERNAME = "uk_user_username";
+	public static final String UNIQUE_EMAIL = "uk_user_email";
+	public static final String UNIQUE_USER_ID = "uk_user_user_id";
+	public static final String INDEX_PROFILE_IMAGE_ID = "idx_user_profile_image_id";
 
 
 
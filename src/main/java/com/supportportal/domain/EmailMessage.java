@@ -0,0 +1,38 @@
+package com.supportportal.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.supportportal.enumeration.EmailStatus;
+import com.supportportal.utility.EncryptedStringConverter;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "ix_email_outbox_status_next_attempt", columnList = "status, nextAttemptAt"))
+public class EmailMessage implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    private String recipient;
+    private String cc;
+    private String subject;
+    @Column(length = 6000)
+    @Convert(converter = EncryptedStringConverter.class)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private EmailStatus status;
+    private int attempts;
+    private Date nextAttemptAt;
+    @Column(length = 1000)
+    private String lastError;
+
+    private Date createdAt;
+    private Date sentAt;
+}
@@ -0,0 +1,31 @@
+package com.supportportal.domain;
+
+import java.io.Serializable;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Mapping of the table shared by every node when {@code security.login-attempts.store} is {@code jdbc}. Each row
+ * holds the attempts of one key within one bucket of the sliding window. The rows are written by
+ * {@link com.supportportal.service.impl.JdbcLoginAttemptStore} with plain SQL upserts.
+ */
+@Data
+@Entity
+@IdClass(LoginAttempt.Key.class)
+@Table(name = "login_attempt", indexes = @Index(name = "ix_login_attempt_bucket", columnList = "bucket"))
+public class LoginAttempt implements Serializable {
+    @Id
+    @Column(nullable = false, updatable = false)
+    private String attemptKey;
+    @Id
+    @Column(nullable = false, updatable = false)
+    private long bucket;
+    private int attempts;
+
+    @Data
+    public static class Key implements Serializable {
+        private String attemptKey;
+        private long bucket;
+    }
+}
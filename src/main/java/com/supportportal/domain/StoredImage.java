@@ -0,0 +1,35 @@
+package com.supportportal.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.springframework.core.io.InputStreamSource;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A stored image file with what a response needs to be cached by clients: its length, modification time and
+ * a strong ETag derived from the SHA-256 of its content. {@code content} holds the bytes when the image is
+ * kept in memory and is {@code null} when it has to be read from {@code path}, or from {@code source} for
+ * images without a local file, which opens a fresh stream over the content on each call.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredImage {
+
+	private final Path path;
+	private final long contentLength;
+	private final long lastModified;
+	private final String eTag;
+	private final ByteBuffer content;
+	private final InputStreamSource source;
+
+	public StoredImage(Path path, long contentLength, long lastModified, String eTag, ByteBuffer content) {
+		this(path, contentLength, lastModified, eTag, content, null);
+	}
+
+	public StoredImage withContent(ByteBuffer content) {
+		return new StoredImage(path, contentLength, lastModified, eTag, content, source);
+	}
+}
@@ -6,9 +6,16 @@ import java.io.Serializable;
 import java.util.Date;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.supportportal.enumeration.Role;
+import static com.supportportal.constant.UserImplConstant.*;
 
 @Data
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = UNIQUE_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = UNIQUE_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = UNIQUE_USER_ID, columnNames = "userId")
+}, indexes = @Index(name = INDEX_PROFILE_IMAGE_ID, columnList = "profileImageId"))
 public class User implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -24,6 +31,8 @@ public class User implements Serializable {
     private String password;
     private String email;
     private String profileImageUrl;
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String profileImageId;
 
     private Date lastLoginDate;
 
@@ -32,7 +41,11 @@ public class User implements Serializable {
 
 
     private String role;
-    private String[] authorities;
     private boolean isActive;
     private boolean isNotLocked;
+
+    public String[] getAuthorities() {
+        Role known = Role.find(role);
+        return known == null ? new String[0] : known.getAuthorities();
+    }
 }
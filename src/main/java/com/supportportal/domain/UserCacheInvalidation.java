@@ -0,0 +1,26 @@
+package com.supportportal.domain;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Mapping of the table that carries user cache invalidations between nodes when
+ * {@code user.cache.invalidation.channel} is {@code jdbc}. The rows are written and read by
+ * {@link com.supportportal.service.impl.JdbcUserCacheInvalidationChannel} with plain SQL.
+ */
+@Data
+@Entity
+@Table(name = "user_cache_invalidation",
+        indexes = @Index(name = "ix_user_cache_invalidation_created_at", columnList = "createdAt"))
+public class UserCacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private long userId;
+    @Column(nullable = false, updatable = false)
+    private Date createdAt;
+}
@@ -1,14 +1,12 @@
 package com.supportportal.domain;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
-
-import static java.util.Arrays.stream;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.supportportal.enumeration.Role;
+
 import lombok.Data;
 
 @Data 
@@ -21,7 +19,7 @@ public class UserPrincipal implements UserDetails{
 	}
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return stream(this.user.getAuthorities()).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+		return Role.grantedAuthoritiesOf(this.user.getRole());
 	}
 
 	@Override
@@ -0,0 +1,23 @@
+package com.supportportal.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+
+	@JsonIgnore
+	private final Long id;
+	private final String userId;
+	private final String firstName;
+	private final String lastName;
+	private final String username;
+	private final String email;
+	private final String role;
+	private final String profileImageUrl;
+	private final boolean isActive;
+	private final boolean isNotLocked;
+}
@@ -0,0 +1,22 @@
+package com.supportportal.domain;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+	private final String subject;
+	private final Date expiresAt;
+	private final List<GrantedAuthority> authorities;
+
+	public boolean isExpired() {
+		return expiresAt != null && expiresAt.before(new Date());
+	}
+}
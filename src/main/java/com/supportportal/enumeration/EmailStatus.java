@@ -0,0 +1,9 @@
+package com.supportportal.enumeration;
+
+public enum EmailStatus {
+
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
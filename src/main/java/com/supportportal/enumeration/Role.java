@@ -2,6 +2,20 @@ package com.supportportal.enumeration;
 
 import static com.supportportal.constant.Authority.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
 public enum Role {
     
     ROLE_USER(USER_AUTHORITIES),
@@ -10,13 +24,62 @@ public enum Role {
     ROLE_ADMIN(ADMIN_AUTHORITIES),
     ROLE_SUPER_ADMIN(SUPER_ADMIN_AUTHORITIES);
     
-    private String[] authorities;
+    private static final Logger LOGGER = LoggerFactory.getLogger(Role.class);
+    private static final Map<String, GrantedAuthority> GRANTED_AUTHORITIES = new HashMap<>();
+    private static final Set<String> UNKNOWN_ROLES = ConcurrentHashMap.newKeySet();
+
+    static {
+        for (Role role : values()) {
+            for (GrantedAuthority grantedAuthority : role.grantedAuthorities) {
+                GRANTED_AUTHORITIES.putIfAbsent(grantedAuthority.getAuthority(), grantedAuthority);
+            }
+        }
+    }
+
+    private final String[] authorities;
+    private final List<GrantedAuthority> grantedAuthorities;
     
     Role(String... authorities) {
         this.authorities = authorities;
+        this.grantedAuthorities = Arrays.stream(authorities)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
     }
     
     public String[] getAuthorities() {
-        return authorities;
+        return authorities.clone();
+    }
+
+    public List<GrantedAuthority> getGrantedAuthorities() {
+        return grantedAuthorities;
+    }
+
+    public static List<GrantedAuthority> grantedAuthoritiesOf(String role) {
+        Role known = find(role);
+        return known == null ? Collections.emptyList() : known.grantedAuthorities;
+    }
+
+    /**
+     * Returns the role stored as {@code role}, or {@code null} when there is none or it is not a role of this
+     * version, e.g. one left behind by an older release. Users with such a role get no authorities, and each
+     * unknown value is logged once.
+     */
+    public static Role find(String role) {
+        if (role == null) {
+            return null;
+        }
+        try {
+            return valueOf(role);
+        } catch (IllegalArgumentException e) {
+            if (UNKNOWN_ROLES.add(role)) {
+                LOGGER.warn("Unknown role {}, users with it get no authorities", role);
+            }
+            return null;
+        }
+    }
+
+    public static GrantedAuthority grantedAuthority(String authority) {
+        GrantedAuthority grantedAuthority = GRANTED_AUTHORITIES.get(authority);
+        return grantedAuthority != null ? grantedAuthority : new SimpleGrantedAuthority(authority);
     }
 }
@@ -1,9 +1,12 @@
 package com.supportportal.exception.domain;
 
 import org.springframework.boot.web.servlet.error.ErrorController;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
@@ -11,6 +14,7 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.slf4j.LoggerFactory;
 import com.auth0.jwt.exceptions.TokenExpiredException;
@@ -21,6 +25,7 @@ import java.nio.file.AccessDeniedException;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.springframework.web.servlet.NoHandlerFoundException;
+import static com.supportportal.constant.FileConstant.UPLOAD_TOO_LARGE;
 
 @RestControllerAdvice
 public class ExceptionHandling implements ErrorController {
@@ -66,6 +71,11 @@ public class ExceptionHandling implements ErrorController {
 	    return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
 	}
 
+	@ExceptionHandler(EmailExistException.class)
+	public ResponseEntity<HttpResponse> emailExistException(EmailExistException exception){
+	    return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+	}
+
 	
 	@ExceptionHandler(EmailNotFoundException.class)
 	public  ResponseEntity<HttpResponse> emailNotFoundException(EmailNotFoundException exception){
@@ -82,6 +92,48 @@ public class ExceptionHandling implements ErrorController {
 //		return createHttpResponse(HttpStatus.BAD_REQUEST, "This page was not found");
 //	}
 
+	@ExceptionHandler(PropertyReferenceException.class)
+	public  ResponseEntity<HttpResponse> propertyReferenceException(PropertyReferenceException exception){
+		return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+	}
+
+	@ExceptionHandler(ServiceBusyException.class)
+	public  ResponseEntity<HttpResponse> serviceBusyException(ServiceBusyException exception){
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+		return createHttpResponse(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage(), headers);
+	}
+
+	@ExceptionHandler(ImageTooLargeException.class)
+	public  ResponseEntity<HttpResponse> imageTooLargeException(ImageTooLargeException exception){
+		return createHttpResponse(HttpStatus.PAYLOAD_TOO_LARGE, exception.getMessage());
+	}
+
+	@ExceptionHandler(MaxUploadSizeExceededException.class)
+	public  ResponseEntity<HttpResponse> maxUploadSizeExceededException(MaxUploadSizeExceededException exception){
+		long maxUploadSize = exception.getMaxUploadSize();
+		return createHttpResponse(HttpStatus.PAYLOAD_TOO_LARGE, maxUploadSize > 0
+				? UPLOAD_TOO_LARGE + " of " + DataSize.ofBytes(maxUploadSize).toKilobytes() + " KB"
+				: UPLOAD_TOO_LARGE);
+	}
+
+	@ExceptionHandler(InvalidPageRequestException.class)
+	public  ResponseEntity<HttpResponse> invalidPageRequestException(InvalidPageRequestException exception){
+		return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+	}
+
+	@ExceptionHandler(InvalidImageException.class)
+	public  ResponseEntity<HttpResponse> invalidImageException(InvalidImageException exception){
+		return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+	}
+
+	@ExceptionHandler(TooManyLoginAttemptsException.class)
+	public  ResponseEntity<HttpResponse> tooManyLoginAttemptsException(TooManyLoginAttemptsException exception){
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+		return createHttpResponse(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage(), headers);
+	}
+
 	@ExceptionHandler(HttpRequestMethodNotSupportedException.class)
 	public  ResponseEntity<HttpResponse> methodNotSupportedException(HttpRequestMethodNotSupportedException exception){
 		HttpMethod supportedMethod = Objects.requireNonNull(exception.getSupportedHttpMethods()).iterator().next();
@@ -107,8 +159,12 @@ public class ExceptionHandling implements ErrorController {
 	}
 	
 	private ResponseEntity<HttpResponse> createHttpResponse(HttpStatus httpStatus,String message) {
+		return createHttpResponse(httpStatus, message, new HttpHeaders());
+	}
+
+	private ResponseEntity<HttpResponse> createHttpResponse(HttpStatus httpStatus,String message, HttpHeaders headers) {
 		return new ResponseEntity<>(new HttpResponse(httpStatus.value(),httpStatus,
-				httpStatus.getReasonPhrase().toUpperCase(),message.toUpperCase()), httpStatus);
+				httpStatus.getReasonPhrase().toUpperCase(),message.toUpperCase()), headers, httpStatus);
 		
 	}
 	
@@ -0,0 +1,10 @@
+package com.supportportal.exception.domain;
+
+import java.io.IOException;
+
+public class ImageTooLargeException extends IOException {
+
+	public ImageTooLargeException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,10 @@
+package com.supportportal.exception.domain;
+
+import java.io.IOException;
+
+public class InvalidImageException extends IOException {
+
+	public InvalidImageException(String message) {
+		super(message);
+	}
+}
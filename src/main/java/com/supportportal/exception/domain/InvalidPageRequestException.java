@@ -0,0 +1,8 @@
+package com.supportportal.exception.domain;
+
+public class InvalidPageRequestException extends Exception {
+
+	public InvalidPageRequestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,15 @@
+package com.supportportal.exception.domain;
+
+public class TooManyLoginAttemptsException extends Exception {
+
+	private final long retryAfterSeconds;
+
+	public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
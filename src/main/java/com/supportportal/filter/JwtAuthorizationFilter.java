@@ -1,14 +1,14 @@
 package com.supportportal.filter;
 
 import java.io.IOException;
-import java.util.List;
 import org.springframework.security.core.Authentication;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.supportportal.constant.SecurityConstant;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.supportportal.domain.VerifiedToken;
+import com.supportportal.utility.JWTTokenCache;
 import com.supportportal.utility.JWTTokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,26 +18,27 @@ import static com.supportportal.constant.SecurityConstant.*;
 
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
-	private JWTTokenProvider jwtTokenProvider;
-	
-	public JwtAuthorizationFilter(JWTTokenProvider JwtTokenProvider) {
+	private final JWTTokenProvider jwtTokenProvider;
+	private final JWTTokenCache jwtTokenCache;
+
+	public JwtAuthorizationFilter(JWTTokenProvider jwtTokenProvider, JWTTokenCache jwtTokenCache) {
 		this.jwtTokenProvider = jwtTokenProvider;
+		this.jwtTokenCache = jwtTokenCache;
 	}
-	@Override 
+	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 		if (request.getMethod().equalsIgnoreCase(OPTIONS_HTTP_METHOD)) {
             response.setStatus(HttpStatus.OK.value());
 		} else {
 			 String authorizationHeader = request.getHeader(AUTHORIZATION);
-			if(authorizationHeader == null || authorizationHeader.startsWith(TOKEN_PREFIX)) {
+			if(authorizationHeader == null || !authorizationHeader.startsWith(TOKEN_PREFIX)) {
 				filterChain.doFilter(request, response);
 				return;
 			}
 			String token = authorizationHeader.substring(TOKEN_PREFIX.length());
-			String username = jwtTokenProvider.getSubject(token);
-			if(jwtTokenProvider.isTokenValid(username, token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-				List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
-				Authentication authentication = jwtTokenProvider.getAuthentication(username, authorities, request);
+			VerifiedToken verifiedToken = verify(token);
+			if(verifiedToken != null && jwtTokenProvider.isTokenValid(verifiedToken) && SecurityContextHolder.getContext().getAuthentication() == null) {
+				Authentication authentication = jwtTokenProvider.getAuthentication(verifiedToken.getSubject(), verifiedToken.getAuthorities(), request);
 				SecurityContextHolder.getContext().setAuthentication(authentication);
 			} else {
 				SecurityContextHolder.clearContext();
@@ -46,4 +47,12 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	private VerifiedToken verify(String token) {
+		try {
+			return jwtTokenCache.verifyToken(token);
+		} catch (JWTVerificationException exception) {
+			return null;
+		}
+	}
+
 }
@@ -0,0 +1,147 @@
+package com.supportportal.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.supportportal.utility.RequestTimings;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Times each request with {@link RequestTimings}, ahead of every other filter. With
+ * {@code request-timing.server-timing} on, the span totals are sent as a {@code Server-Timing} header, added
+ * just before the response commits. Requests slower than {@code request-timing.slow-request.threshold-ms} are
+ * logged with their span timeline at the rate of {@code request-timing.slow-request.sample-rate}. With the
+ * header off and a sample rate of 0 the filter is skipped entirely.
+ * <p>
+ * Only the first dispatch is timed, so an asynchronous response reports the spans of the handler but is
+ * never logged as slow.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final boolean serverTiming;
+    private final long slowRequestNanos;
+    private final double sampleRate;
+
+    public RequestTimingFilter(@Value("${request-timing.server-timing:false}") boolean serverTiming,
+                               @Value("${request-timing.slow-request.threshold-ms:1000}") long thresholdMillis,
+                               @Value("${request-timing.slow-request.sample-rate:0}") double sampleRate) {
+        this.serverTiming = serverTiming;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !serverTiming && sampleRate <= 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        ServerTimingResponse timedResponse = serverTiming ? new ServerTimingResponse(response, timings) : null;
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+        } finally {
+            RequestTimings.stop();
+            if (timedResponse != null) {
+                timedResponse.addServerTiming();
+            }
+            if (!request.isAsyncStarted()) {
+                logIfSlow(request, response, timings);
+            }
+        }
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        long elapsedNanos = timings.elapsedNanos();
+        if (elapsedNanos < slowRequestNanos || sampleRate <= 0
+                || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        LOGGER.warn("Slow request method={} uri={} pattern={} status={} duration_ms={} spans=[{}]",
+                request.getMethod(), request.getRequestURI(), pattern, response.getStatus(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), timings.toTimeline());
+    }
+
+    /**
+     * Adds the header on the first call that can commit the response. Request attributes are untouched, so
+     * responses handed to Tomcat's sendfile still go out that way.
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean added;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                setHeader(SERVER_TIMING, timings.toServerTiming());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
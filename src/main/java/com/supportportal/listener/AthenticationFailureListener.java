@@ -5,6 +5,7 @@ import java.util.concurrent.ExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
 import com.supportportal.service.LoginAttemptService;
@@ -27,5 +28,9 @@ public class AthenticationFailureListener {
 			String username = (String) event.getAuthentication().getPrincipal();
 			loginAttemptService.addUserToLoginAttemptCache(username);
 		}
+		Object details = event.getAuthentication().getDetails();
+		if (details instanceof WebAuthenticationDetails) {
+			loginAttemptService.addAddressToLoginAttemptCache(((WebAuthenticationDetails) details).getRemoteAddress());
+		}
 	}
 }
@@ -1,33 +1,33 @@
 package com.supportportal.listener;
 
-import java.util.concurrent.ExecutionException;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
-import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.stereotype.Component;
 
-import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+import com.supportportal.service.LastLoginService;
 import com.supportportal.service.LoginAttemptService;
 
 @Component
 public class AuthenticationSuccessListener {
 
 	private LoginAttemptService loginAttemptService;
+	private LastLoginService lastLoginService;
 
 	@Autowired
-	public AuthenticationSuccessListener(LoginAttemptService loginAttemptService) {
+	public AuthenticationSuccessListener(LoginAttemptService loginAttemptService, LastLoginService lastLoginService) {
 		this.loginAttemptService = loginAttemptService;
+		this.lastLoginService = lastLoginService;
 	}
 	
 	@EventListener
 	public void onAuthenticationSuccess(AuthenticationSuccessEvent event){
 		Object principle = event.getAuthentication().getPrincipal();
-		if (principle instanceof User) {
-			User user = (User) event.getAuthentication().getPrincipal();
-			loginAttemptService.evictUserFromLoginAttemptCache(user.getUsername());
+		if (principle instanceof UserPrincipal) {
+			UserPrincipal userPrincipal = (UserPrincipal) event.getAuthentication().getPrincipal();
+			loginAttemptService.evictUserFromLoginAttemptCache(userPrincipal.getUsername());
+			lastLoginService.recordLogin(userPrincipal.getUser());
 		}
 	}
 }
- 
\ No newline at end of file
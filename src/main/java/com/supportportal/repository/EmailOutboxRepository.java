@@ -0,0 +1,48 @@
+package com.supportportal.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.supportportal.domain.EmailMessage;
+import com.supportportal.enumeration.EmailStatus;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailMessage, Long> {
+
+    List<EmailMessage> findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(Collection<EmailStatus> statuses,
+            Date now, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update EmailMessage m set m.status = com.supportportal.enumeration.EmailStatus.SENDING, "
+            + "m.nextAttemptAt = :leaseUntil where m.id = :id and m.status in :statuses and m.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("statuses") Collection<EmailStatus> statuses, @Param("now") Date now,
+            @Param("leaseUntil") Date leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update EmailMessage m set m.status = com.supportportal.enumeration.EmailStatus.SENT, m.body = null, "
+            + "m.attempts = m.attempts + 1, m.sentAt = :sentAt, m.lastError = null where m.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("update EmailMessage m set m.status = :status, m.attempts = :attempts, m.nextAttemptAt = :nextAttemptAt, "
+            + "m.lastError = :lastError, "
+            + "m.body = case when :status = com.supportportal.enumeration.EmailStatus.FAILED then null else m.body end "
+            + "where m.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") EmailStatus status, @Param("attempts") int attempts,
+            @Param("nextAttemptAt") Date nextAttemptAt, @Param("lastError") String lastError);
+
+    @Modifying
+    @Transactional
+    @Query("delete from EmailMessage m where m.status in :statuses and m.createdAt < :before")
+    int purge(@Param("statuses") Collection<EmailStatus> statuses, @Param("before") Date before);
+}
@@ -1,9 +1,54 @@
 package com.supportportal.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import com.supportportal.domain.User;
+import com.supportportal.domain.UserSummary;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findUserByUsername(String username);
     User findUserByEmail(String email);
+    User findUserByUserId(String userId);
+    boolean existsByProfileImageId(String profileImageId);
+
+    String SELECT_USER_SUMMARY = "select new com.supportportal.domain.UserSummary(u.id, u.userId, u.firstName, "
+            + "u.lastName, u.username, u.email, u.role, u.profileImageUrl, u.isActive, u.isNotLocked) from User u";
+
+    @Query(SELECT_USER_SUMMARY)
+    Slice<UserSummary> findSummariesBy(Pageable pageable);
+
+    @Query(SELECT_USER_SUMMARY + " where u.id > :id order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("id") Long id, Limit limit);
+
+    @Query(SELECT_USER_SUMMARY + " where u.username = :username")
+    UserSummary findSummaryByUsername(@Param("username") String username);
+
+    @Query(SELECT_USER_SUMMARY + " where (u.username = :username or u.email = :email)"
+            + " and (:excludedId is null or u.id <> :excludedId)")
+    List<UserSummary> findUsernameOrEmailCollisions(@Param("username") String username, @Param("email") String email,
+            @Param("excludedId") Long excludedId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_USER_SUMMARY + " order by u.id")
+    Stream<UserSummary> streamSummariesOrderById();
+
+    @Query("select u from User u where u.profileImageId is null and u.profileImageUrl like :legacyUrl"
+            + " and u.profileImageUrl not like :placeholderUrl")
+    List<User> findLegacyProfileImageUsers(@Param("legacyUrl") String legacyUrl,
+            @Param("placeholderUrl") String placeholderUrl);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
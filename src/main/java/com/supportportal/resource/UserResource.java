@@ -1,45 +1,68 @@
 package com.supportportal.resource;
 
 
+import com.supportportal.configuration.UploadLimit;
 import com.supportportal.domain.User;
 import com.supportportal.domain.UserPrincipal;
+import com.supportportal.domain.UserSummary;
 import com.supportportal.exception.domain.EmailExistException;
 import com.supportportal.exception.domain.EmailNotFoundException;
 import com.supportportal.exception.domain.ExceptionHandling;
+import com.supportportal.exception.domain.InvalidPageRequestException;
+import com.supportportal.exception.domain.TooManyLoginAttemptsException;
 import com.supportportal.exception.domain.UserNotFoundException;
 import com.supportportal.exception.domain.UsernameExistException;
+import com.supportportal.service.AvatarService;
+import com.supportportal.service.LoginAttemptService;
+import com.supportportal.service.ProfileImageService;
 import com.supportportal.service.UserService;
+import com.supportportal.utility.ByteBufferResource;
 import com.supportportal.utility.JWTTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.MediaType;
 import org.springframework.http.MediaType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 import static com.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static com.supportportal.constant.FileConstant.FORWARD_SLASH;
+import static com.supportportal.constant.FileConstant.USER_IMAGE_PATH;
 import com.supportportal.domain.HttpResponse; 
+import com.supportportal.domain.StoredImage;
 import org.springframework.http.ResponseEntity;
 
-import java.io.ByteArrayOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 
-import javax.mail.MessagingException;
 
 @CrossOrigin(origins = "http://localhost:4200")
 @RestController
@@ -50,20 +73,42 @@ public class UserResource extends ExceptionHandling {
 	private static final String USER_DELETE_SUCCESSFULLY = "User deleted successfully";
 	private static final String EMAIL_SENT = "An email with a new password was sent to: ";
 	private static final HttpStatus NO_CONTENT = HttpStatus.NO_CONTENT;
-	private static final String USER_FOLDER = System.getProperty("user.home") + "/supportportal/user/";
-	private static final String FORWARD_SLASH = "/";
-	private static final String TEMP_PROFILE_IMAGE_BASE_URL = "https://robohash.org/";
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+	private static final String IMAGE_UPLOAD_LIMIT = "${image.upload.max-request-size:1100KB}";
+	private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
 	private static final String IMAGE_JPEG_VALUE = "image/jpeg";
+	private static final String HAS_NEXT_HEADER = "X-Has-Next";
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	private static final String ID = "id";
+	private static final String KEYSET_SORT_ONLY = "Pages read with 'after' are sorted by id, remove the sort parameter";
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int NEW_LINE = '\n';
 
 	private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JWTTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    private final LoginAttemptService loginAttemptService;
+    private final ProfileImageService profileImageService;
+    private final AvatarService avatarService;
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+    private final Duration imageCacheMaxAge;
 
     @Autowired
-    public UserResource(UserService userService, AuthenticationManager authenticationManager, JWTTokenProvider jwtTokenProvider) {
+    public UserResource(UserService userService, AuthenticationManager authenticationManager, JWTTokenProvider jwtTokenProvider,
+            ObjectMapper objectMapper, LoginAttemptService loginAttemptService, ProfileImageService profileImageService,
+            AvatarService avatarService, @Value("${image.cache-max-age:1h}") Duration imageCacheMaxAge) {
         this.userService = userService; 
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.objectMapper = objectMapper;
+        this.loginAttemptService = loginAttemptService;
+        this.profileImageService = profileImageService;
+        this.avatarService = avatarService;
+        this.imageCacheMaxAge = imageCacheMaxAge;
     }
 
     @PostMapping("/register")
@@ -73,15 +118,16 @@ public class UserResource extends ExceptionHandling {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody User user) {
-        authenticate(user.getUsername(), user.getPassword());
-        User loginUser = userService.findUserByUsername(user.getUsername());
-        UserPrincipal userPrincipal = new UserPrincipal(loginUser);
+    public ResponseEntity<User> login(@RequestBody User user, HttpServletRequest request) throws TooManyLoginAttemptsException {
+        loginAttemptService.validateAddress(request.getRemoteAddr());
+        Authentication authentication = authenticate(user.getUsername(), user.getPassword(), request);
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         HttpHeaders jwtHeaders = getJwtHeader(userPrincipal);
-        return new ResponseEntity<>(loginUser, jwtHeaders, OK);
+        return new ResponseEntity<>(userPrincipal.getUser(), jwtHeaders, OK);
     }
     
     @PostMapping("/add")
+    @UploadLimit(IMAGE_UPLOAD_LIMIT)
     public ResponseEntity<User> addNewUser(
             @RequestParam("firstName") String firstName,
             @RequestParam("lastName") String lastName,
@@ -99,6 +145,7 @@ public class UserResource extends ExceptionHandling {
 
 
     @PostMapping("/update")
+    @UploadLimit(IMAGE_UPLOAD_LIMIT)
     public ResponseEntity <User> update(@RequestParam("currentUsername") String currentUsername,
     	@RequestParam("firstName") String firstName,
     	@RequestParam("lastName") String lastName,
@@ -113,20 +160,54 @@ public class UserResource extends ExceptionHandling {
     }
 
 	    @GetMapping("/find/{username}")
-	    public ResponseEntity<User> getUser(@PathVariable("username") String username){
-	    	User user = userService.findUserByUsername(username);
-	    	return new ResponseEntity(user, OK);
+	    public ResponseEntity<UserSummary> getUser(@PathVariable("username") String username){
+	    	UserSummary user = userService.findUserSummaryByUsername(username);
+	    	return new ResponseEntity<>(user, OK);
 	    }
 	    
+	    /**
+	     * Lists users one page at a time. With {@code after}, the id of the last user of the previous page, the
+	     * page is read by keyset in ascending id order, so any other {@code sort} is refused.
+	     */
 	    @GetMapping("/list")
-	    public ResponseEntity<List<User>> getAllUser(){
-	    	List <User> user = userService.getUsers();
-	    	return new ResponseEntity(user, OK);
+	    public ResponseEntity<List<UserSummary>> getAllUser(
+	    		@PageableDefault(size = DEFAULT_PAGE_SIZE, sort = ID) Pageable pageable,
+	    		@RequestParam(value = "after", required = false) Long after) throws InvalidPageRequestException {
+	    	HttpHeaders headers = new HttpHeaders();
+	    	List<UserSummary> users;
+	    	if (after != null) {
+	    		if (!pageable.getSort().equals(Sort.by(ID))) {
+	    			throw new InvalidPageRequestException(KEYSET_SORT_ONLY);
+	    		}
+	    		users = userService.getUsersAfter(after, pageable.getPageSize());
+	    		headers.add(HAS_NEXT_HEADER, String.valueOf(users.size() == pageable.getPageSize()));
+	    	} else {
+	    		Slice<UserSummary> slice = userService.getUsers(pageable);
+	    		users = slice.getContent();
+	    		headers.add(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()));
+	    	}
+	    	if (!users.isEmpty()) {
+	    		headers.add(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+	    	}
+	    	return new ResponseEntity<>(users, headers, OK);
+	    }
+
+	    @GetMapping(path = "/list/stream", produces = APPLICATION_NDJSON_VALUE)
+	    public ResponseEntity<StreamingResponseBody> streamAllUsers(){
+	    	StreamingResponseBody body = outputStream -> userService.streamUsers(user -> {
+	    		try {
+	    			outputStream.write(objectMapper.writeValueAsBytes(user));
+	    			outputStream.write(NEW_LINE);
+	    		} catch (IOException e) {
+	    			throw new UncheckedIOException(e);
+	    		}
+	    	});
+	    	return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
 	    }
 	    
 	    @GetMapping("/resetPassword/{email}")
 	    public ResponseEntity<HttpResponse> resetPassword(@PathVariable("email") String email)
-	            throws MessagingException, EmailExistException, EmailNotFoundException {
+	            throws EmailExistException, EmailNotFoundException {
 	        userService.resetPassword(email);
 	        return response(HttpStatus.OK, EMAIL_SENT + email);
 	    }
@@ -140,40 +221,102 @@ public class UserResource extends ExceptionHandling {
 		    }
 		    
 	    @PostMapping("/updateProfileImage")
+	    @UploadLimit(IMAGE_UPLOAD_LIMIT)
 	    public ResponseEntity <User> updateProfileImage(@RequestParam("username") String username,
 	        @RequestParam(value ="profileImage", required = false) MultipartFile profileImage)throws UserNotFoundException, UsernameExistException, EmailExistException, IOException {
 	    	User user = userService.updateProfileImage(username, profileImage);
 	        return new ResponseEntity<>(user, OK);
 	    }
 	
-	    @GetMapping(path = "/image/{username}/{fileName}", produces = {MediaType.IMAGE_JPEG_VALUE})
-	    public byte[] getProfileImage(
-	            @PathVariable("username") String username,
-	            @PathVariable("fileName") String fileName
+	    /**
+	     * Serves the image from the in-memory cache when it is there, and otherwise streams it from the image store.
+	     * Image ids name their content, so a found image is cacheable forever; the default image served in place
+	     * of a missing one is not. Conditional requests are answered with 304, Range requests are served by Spring
+	     * as 206 regions, and plain GETs of uncached files are handed to Tomcat's sendfile when the connector
+	     * supports it.
+	     */
+	    @GetMapping(path = "/image/{imageId}.jpg", produces = {MediaType.IMAGE_JPEG_VALUE})
+	    public ResponseEntity<Resource> getProfileImage(
+	            @PathVariable("imageId") String imageId,
+	            @RequestParam(value = "size", required = false) Integer size,
+	            ServletWebRequest webRequest
 	    ) throws IOException {
-	        Path imagePath = Paths.get(USER_FOLDER + username + FORWARD_SLASH + fileName);
+	        StoredImage image = profileImageService.findProfileImage(imageId, size);
+	        if (image != null) {
+	            return imageResponse(image, MediaType.IMAGE_JPEG, IMMUTABLE, webRequest);
+	        }
+	        image = profileImageService.findDefaultImage(size);
+	        if (image == null) {
+	            return ResponseEntity.notFound().build();
+	        }
+	        return imageResponse(image, MediaType.IMAGE_JPEG, CacheControl.maxAge(imageCacheMaxAge).cachePublic(),
+	                webRequest);
+	    }
 
-	        if (Files.exists(imagePath)) {
-	            return Files.readAllBytes(imagePath);
-	        } else {
-	            Path defaultImagePath = Paths.get(USER_FOLDER + "default" + FORWARD_SLASH + "default.jpg");
-	            return Files.readAllBytes(defaultImagePath);
+	    /**
+	     * Profile image URLs of the old per-user layout, which may still be bookmarked or cached. They redirect
+	     * to the user's current image, and answer 404 once the username no longer exists or while the user's
+	     * image has not been migrated yet.
+	     */
+	    @GetMapping("/image/{username}/{fileName}")
+	    public ResponseEntity<Void> getLegacyProfileImage(@PathVariable("username") String username,
+	            @PathVariable("fileName") String fileName) {
+	        UserSummary user = userService.findUserSummaryByUsername(username);
+	        if (user == null || user.getProfileImageUrl() == null) {
+	            return ResponseEntity.notFound().build();
 	        }
+	        URI location = URI.create(user.getProfileImageUrl());
+	        if (location.getPath().equals(USER_IMAGE_PATH + username + FORWARD_SLASH + fileName)) {
+	            return ResponseEntity.notFound().build();
+	        }
+	        return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY).location(location).build();
+	    }
+
+	    private ResponseEntity<Resource> imageResponse(StoredImage image, MediaType mediaType, CacheControl cacheControl,
+	            ServletWebRequest webRequest) {
+	        if (webRequest.checkNotModified(image.getETag(), image.getLastModified())) {
+	            return null;
+	        }
+	        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+	                .contentType(mediaType)
+	                .eTag(image.getETag())
+	                .lastModified(image.getLastModified())
+	                .cacheControl(cacheControl);
+	        if (image.getContent() != null) {
+	            return response.body(new ByteBufferResource(image.getContent(), image.getETag()));
+	        }
+	        if (image.getPath() == null) {
+	            return response.contentLength(image.getContentLength()).body(new InputStreamResource(image.getSource()));
+	        }
+	        HttpServletRequest request = webRequest.getRequest();
+	        if (canSendfile(request)) {
+	            request.setAttribute(SENDFILE_FILENAME, image.getPath().toString());
+	            request.setAttribute(SENDFILE_START, 0L);
+	            request.setAttribute(SENDFILE_END, image.getContentLength());
+	            return response.contentLength(image.getContentLength()).build();
+	        }
+	        return response.body(new FileSystemResource(image.getPath()));
+	    }
+
+	    private boolean canSendfile(HttpServletRequest request) {
+	        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+	                && HttpMethod.GET.matches(request.getMethod())
+	                && request.getHeader(HttpHeaders.RANGE) == null;
 	    }
 
 	    
-	    @GetMapping(path = "/image/profile/{username}", produces = {MediaType.IMAGE_JPEG_VALUE})
-	    public byte[] getTempProfileImage(@PathVariable("username") String username) throws IOException {
-	        URL url = new URL(TEMP_PROFILE_IMAGE_BASE_URL + URLEncoder.encode(username, StandardCharsets.UTF_8));
-	        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-	        try (InputStream inputStream = url.openStream()) {
-	            int bytesRead;
-	            byte[] chunk = new byte[1024];
-	            while ((bytesRead = inputStream.read(chunk)) > 0) {
-	                byteArrayOutputStream.write(chunk, 0, bytesRead);
-	            }
+	    /**
+	     * Placeholder avatar for users without a profile image, generated locally by {@link AvatarService}. The
+	     * endpoint is public, so unknown usernames get a 404 before anything is rendered, fetched or stored.
+	     */
+	    @GetMapping(path = "/image/profile/{username}", produces = {MediaType.IMAGE_PNG_VALUE})
+	    public ResponseEntity<Resource> getTempProfileImage(@PathVariable("username") String username,
+	            ServletWebRequest webRequest) throws IOException {
+	        if (userService.findUserSummaryByUsername(username) == null) {
+	            return ResponseEntity.notFound().build();
 	        }
-	        return byteArrayOutputStream.toByteArray();
+	        return imageResponse(avatarService.findAvatar(username), MediaType.IMAGE_PNG,
+	                CacheControl.maxAge(imageCacheMaxAge).cachePublic(), webRequest);
 	    }
    
     private ResponseEntity<HttpResponse> response(HttpStatus httpStatus, String message) {
@@ -187,7 +330,9 @@ public class UserResource extends ExceptionHandling {
         return headers;
     }
 
-    private void authenticate(String username, String password) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    private Authentication authenticate(String username, String password, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, password);
+        authenticationToken.setDetails(authenticationDetailsSource.buildDetails(request));
+        return authenticationManager.authenticate(authenticationToken);
     }
 }
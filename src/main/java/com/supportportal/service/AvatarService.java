@@ -0,0 +1,203 @@
+package com.supportportal.service;
+
+import static com.supportportal.constant.FileConstant.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.supportportal.domain.StoredImage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Placeholder avatars for users without a profile image. By default an identicon is rendered in-process from
+ * the SHA-256 of the username, so the same user always gets the same picture and nothing leaves the server.
+ * With {@code image.avatar.remote.enabled} the avatar is fetched from {@code image.avatar.remote.url} under
+ * strict timeouts instead, falling back to the identicon when that fails. Every avatar is written once to
+ * {@code image.avatar.folder} and then served from memory.
+ */
+@Service
+public class AvatarService {
+
+    private static final String AVATAR_CACHE = "avatar.cache";
+    private static final String HIT_RATIO_METRIC = AVATAR_CACHE + ".hit.ratio";
+    private static final String PNG = "png";
+    private static final String REMOTE_SUFFIX = "-remote";
+    private static final int GRID = 5;
+    private static final Color BACKGROUND = new Color(240, 240, 240);
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final Cache<String, StoredImage> avatars;
+    private final Path avatarFolder;
+    private final int size;
+    private final boolean remoteEnabled;
+    private final String remoteUrl;
+    private final Duration readTimeout;
+    private final long maxRemoteBytes;
+    private final HttpClient httpClient;
+
+    public AvatarService(@Value("${image.avatar.folder:${user.home}/supportportal/avatar/}") String avatarFolder,
+                         @Value("${image.avatar.size:128}") int size,
+                         @Value("${image.avatar.cache.maximum-size:1000}") long cacheSize,
+                         @Value("${image.avatar.remote.enabled:false}") boolean remoteEnabled,
+                         @Value("${image.avatar.remote.url:" + TEMP_PROFILE_IMAGE_BASE_URL + "}") String remoteUrl,
+                         @Value("${image.avatar.remote.connect-timeout:1s}") Duration connectTimeout,
+                         @Value("${image.avatar.remote.read-timeout:2s}") Duration readTimeout,
+                         @Value("${image.avatar.remote.maximum-size:256KB}") DataSize maxRemoteSize,
+                         MeterRegistry meterRegistry) {
+        this.avatarFolder = Paths.get(avatarFolder).toAbsolutePath().normalize();
+        this.size = size;
+        this.remoteEnabled = remoteEnabled;
+        this.remoteUrl = remoteUrl;
+        this.readTimeout = readTimeout;
+        this.maxRemoteBytes = maxRemoteSize.toBytes();
+        this.httpClient = remoteEnabled
+                ? HttpClient.newBuilder().connectTimeout(connectTimeout).followRedirects(HttpClient.Redirect.NORMAL).build()
+                : null;
+        this.avatars = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
+        GuavaCacheMetrics.monitor(meterRegistry, avatars, AVATAR_CACHE);
+        Gauge.builder(HIT_RATIO_METRIC, avatars, cache -> cache.stats().hitRate()).register(meterRegistry);
+    }
+
+    /**
+     * Returns the PNG avatar of the user, generating and storing it on first use. Callers must check that the
+     * user exists, otherwise arbitrary names fill the avatar folder. The avatar is loaded outside
+     * the cache because Guava runs a loader while holding a monitor, which would pin a virtual request thread to
+     * its carrier for the whole fetch; two first requests for the same user may both load it, harmlessly.
+     */
+    public StoredImage findAvatar(String username) throws IOException {
+        StoredImage avatar = avatars.getIfPresent(username);
+        if (avatar == null) {
+            avatar = loadAvatar(username);
+            avatars.put(username, avatar);
+        }
+        return avatar;
+    }
+
+    private StoredImage loadAvatar(String username) throws IOException {
+        HashCode usernameHash = Hashing.sha256().hashString(username, StandardCharsets.UTF_8);
+        Path path = avatarFolder.resolve(usernameHash + (remoteEnabled ? REMOTE_SUFFIX : "") + DOT + PNG);
+        if (Files.isRegularFile(path)) {
+            return storedImage(path, Files.readAllBytes(path));
+        }
+        byte[] content = null;
+        if (remoteEnabled) {
+            content = fetchRemoteAvatar(username);
+        }
+        if (content == null) {
+            content = renderIdenticon(usernameHash.asBytes());
+            path = avatarFolder.resolve(usernameHash + DOT + PNG);
+        }
+        write(path, content);
+        return storedImage(path, content);
+    }
+
+    private byte[] fetchRemoteAvatar(String username) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(remoteUrl + URLEncoder.encode(username, StandardCharsets.UTF_8)))
+                .timeout(readTimeout)
+                .GET()
+                .build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    LOGGER.warn("Avatar service answered {} for {}, using a generated avatar", response.statusCode(), username);
+                    return null;
+                }
+                byte[] content = body.readNBytes((int) maxRemoteBytes + 1);
+                if (content.length > maxRemoteBytes) {
+                    LOGGER.warn("Avatar of {} exceeds {} bytes, using a generated avatar", username, maxRemoteBytes);
+                    return null;
+                }
+                return content;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to fetch avatar of {}, using a generated avatar: {}", username, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Renders a 5x5 identicon mirrored around its middle column. The first bytes of the hash pick the colour and
+     * the following ones switch the cells on and off.
+     */
+    private byte[] renderIdenticon(byte[] hash) throws IOException {
+        float hue = (hash[0] & 0xFF) / 255f;
+        float saturation = 0.45f + (hash[1] & 0xFF) / 255f * 0.3f;
+        float brightness = 0.55f + (hash[2] & 0xFF) / 255f * 0.25f;
+        Color foreground = Color.getHSBColor(hue, saturation, brightness);
+
+        int cell = size / (GRID + 1);
+        int margin = (size - cell * GRID) / 2;
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(BACKGROUND);
+            graphics.fillRect(0, 0, size, size);
+            graphics.setColor(foreground);
+            for (int row = 0; row < GRID; row++) {
+                for (int column = 0; column < (GRID + 1) / 2; column++) {
+                    if ((hash[3 + row * 3 + column] & 1) == 0) {
+                        continue;
+                    }
+                    graphics.fillRect(margin + column * cell, margin + row * cell, cell, cell);
+                    graphics.fillRect(margin + (GRID - 1 - column) * cell, margin + row * cell, cell, cell);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, PNG, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private void write(Path path, byte[] content) throws IOException {
+        Files.createDirectories(avatarFolder);
+        Path temporary = Files.createTempFile(avatarFolder, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, content);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private StoredImage storedImage(Path path, byte[] content) throws IOException {
+        String eTag = Hashing.sha256().hashBytes(content).toString();
+        return new StoredImage(path, content.length, Files.getLastModifiedTime(path).toMillis(), eTag,
+                ByteBuffer.wrap(content).asReadOnlyBuffer());
+    }
+}
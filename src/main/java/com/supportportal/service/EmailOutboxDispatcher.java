@@ -0,0 +1,270 @@
+package com.supportportal.service;
+
+import static com.supportportal.constant.EmailConstant.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Lists;
+import com.supportportal.domain.EmailMessage;
+import com.supportportal.enumeration.EmailStatus;
+import com.supportportal.exception.domain.ServiceBusyException;
+import com.supportportal.repository.EmailOutboxRepository;
+import com.supportportal.utility.BoundedExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers queued {@link EmailMessage}s. Each poll claims a batch of due messages, splits it into groups that
+ * are sent over one pooled SMTP connection each, and records the outcome per message. Failed attempts are
+ * retried with exponential backoff until {@code mail.outbox.max-attempts} is reached, at which point the body
+ * is cleared. Sent and failed messages are deleted once older than {@code mail.outbox.retention-ms}. Each send
+ * over SMTP is timed as {@code email.send}, tagged with whether the server accepted the message.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Set<EmailStatus> DISPATCHABLE = EnumSet.of(EmailStatus.PENDING, EmailStatus.SENDING);
+    private static final Set<EmailStatus> FINISHED = EnumSet.of(EmailStatus.SENT, EmailStatus.FAILED);
+    private static final String BODY_UNAVAILABLE = "Message body could not be decrypted";
+    private static final String EMAIL_DELIVERY = "email-delivery";
+    private static final String SEND_METRIC = "email.send";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final BlockingQueue<Transport> idleTransports = new LinkedBlockingQueue<>();
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final BoundedExecutor deliveryExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Timer sentTimer;
+    private final Timer failedSendTimer;
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final String from;
+    private final int batchSize;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+    private final long retentionMillis;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, MeterRegistry meterRegistry,
+                                 @Value("${mail.protocol:" + SIMPLE_MAIL_TRANSFER_PROTOCOL + "}") String protocol,
+                                 @Value("${mail.host:" + GMAIL_SMTP_SERVER + "}") String host,
+                                 @Value("${mail.port:" + DEFAULT_PORT + "}") int port,
+                                 @Value("${mail.username:" + USERNAME + "}") String username,
+                                 @Value("${mail.password:" + PASSWORD + "}") String password,
+                                 @Value("${mail.from:" + FROM_EMAIL + "}") String from,
+                                 @Value("${mail.timeout-ms:10000}") long timeoutMillis,
+                                 @Value("${mail.outbox.workers:2}") int workers,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.messages-per-connection:10}") int messagesPerConnection,
+                                 @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${mail.outbox.initial-backoff-ms:30000}") long initialBackoffMillis,
+                                 @Value("${mail.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                                 @Value("${mail.outbox.lease-ms:300000}") long leaseMillis,
+                                 @Value("${mail.outbox.retention-ms:604800000}") long retentionMillis) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.messagesPerConnection = messagesPerConnection;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+        this.retentionMillis = retentionMillis;
+        this.meterRegistry = meterRegistry;
+        this.sentTimer = Timer.builder(SEND_METRIC).tag("outcome", "sent").register(meterRegistry);
+        this.failedSendTimer = Timer.builder(SEND_METRIC).tag("outcome", "failed").register(meterRegistry);
+        this.session = Session.getInstance(sessionProperties(timeoutMillis));
+        int groupsPerBatch = (batchSize + messagesPerConnection - 1) / messagesPerConnection;
+        this.deliveryExecutor = new BoundedExecutor(EMAIL_DELIVERY, workers, groupsPerBatch, 1, meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}",
+            initialDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<EmailMessage> claimed = claimDueMessages();
+        for (List<EmailMessage> group : Lists.partition(claimed, messagesPerConnection)) {
+            try {
+                deliveryExecutor.submit(() -> {
+                    deliver(group);
+                    return null;
+                });
+            } catch (ServiceBusyException e) {
+                LOGGER.warn("Email workers are busy, {} claimed messages wait for their lease to expire", group.size());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${mail.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = emailOutboxRepository.purge(FINISHED, new Date(System.currentTimeMillis() - retentionMillis));
+        if (purged > 0) {
+            LOGGER.info("Purged {} sent or failed messages from the email outbox", purged);
+        }
+    }
+
+    private List<EmailMessage> claimDueMessages() {
+        Date now = new Date();
+        Date leaseUntil = new Date(now.getTime() + leaseMillis);
+        List<EmailMessage> due = emailOutboxRepository
+                .findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(DISPATCHABLE, now, Limit.of(batchSize));
+        List<EmailMessage> claimed = new ArrayList<>(due.size());
+        for (EmailMessage emailMessage : due) {
+            if (emailOutboxRepository.claim(emailMessage.getId(), DISPATCHABLE, now, leaseUntil) == 1) {
+                claimed.add(emailMessage);
+            }
+        }
+        return claimed;
+    }
+
+    private void deliver(List<EmailMessage> group) {
+        Transport transport = null;
+        int index = 0;
+        try {
+            transport = borrowTransport();
+            for (; index < group.size(); index++) {
+                EmailMessage emailMessage = group.get(index);
+                if (emailMessage.getBody() == null) {
+                    emailOutboxRepository.markFailedAttempt(emailMessage.getId(), EmailStatus.FAILED,
+                            emailMessage.getAttempts() + 1, new Date(), BODY_UNAVAILABLE);
+                    LOGGER.error("Failed to send email {}: {}", emailMessage.getId(), BODY_UNAVAILABLE);
+                    continue;
+                }
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    Message message = createEmail(emailMessage);
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (SendFailedException e) {
+                    sample.stop(failedSendTimer);
+                    recordFailedAttempt(emailMessage, e);
+                    continue;
+                } catch (MessagingException | RuntimeException e) {
+                    sample.stop(failedSendTimer);
+                    throw e;
+                }
+                sample.stop(sentTimer);
+                emailOutboxRepository.markSent(emailMessage.getId(), new Date());
+            }
+            idleTransports.offer(transport);
+        } catch (MessagingException | RuntimeException e) {
+            for (; index < group.size(); index++) {
+                recordFailedAttempt(group.get(index), e);
+            }
+            closeQuietly(transport);
+        }
+    }
+
+    private Transport borrowTransport() throws MessagingException {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            if (transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+        transport = session.getTransport(protocol);
+        transport.connect(host, port, username, password);
+        return transport;
+    }
+
+    private Message createEmail(EmailMessage emailMessage) throws MessagingException {
+        Message message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(emailMessage.getRecipient(), false));
+        if (StringUtils.isNotBlank(emailMessage.getCc())) {
+            message.setRecipients(Message.RecipientType.CC, InternetAddress.parse(emailMessage.getCc(), false));
+        }
+        message.setSubject(emailMessage.getSubject());
+        message.setText(emailMessage.getBody());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    private void recordFailedAttempt(EmailMessage emailMessage, Exception e) {
+        int attempts = emailMessage.getAttempts() + 1;
+        EmailStatus status = attempts >= maxAttempts ? EmailStatus.FAILED : EmailStatus.PENDING;
+        Date nextAttemptAt = new Date(System.currentTimeMillis() + backoffMillis(attempts));
+        emailOutboxRepository.markFailedAttempt(emailMessage.getId(), status, attempts, nextAttemptAt,
+                StringUtils.abbreviate(e.getMessage(), 1000));
+        LOGGER.error("Failed to send email {} to {} (attempt {} of {}): {}", emailMessage.getId(),
+                emailMessage.getRecipient(), attempts, maxAttempts, e.getMessage());
+    }
+
+    private long backoffMillis(int attempts) {
+        int exponent = Math.min(attempts - 1, 30);
+        return Math.min(initialBackoffMillis << exponent, maxBackoffMillis);
+    }
+
+    private Properties sessionProperties(long timeoutMillis) {
+        Properties properties = new Properties();
+        properties.put(mailProperty("host"), host);
+        properties.put(mailProperty("port"), String.valueOf(port));
+        properties.put(mailProperty("auth"), String.valueOf(StringUtils.isNotEmpty(username)));
+        properties.put(mailProperty("starttls.enable"), "true");
+        properties.put(mailProperty("connectiontimeout"), String.valueOf(timeoutMillis));
+        properties.put(mailProperty("timeout"), String.valueOf(timeoutMillis));
+        properties.put(mailProperty("writetimeout"), String.valueOf(timeoutMillis));
+        return properties;
+    }
+
+    private String mailProperty(String name) {
+        return "mail." + protocol + "." + name;
+    }
+
+    private void closeQuietly(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.close();
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+}
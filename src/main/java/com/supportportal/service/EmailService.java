@@ -1,51 +1,47 @@
 package com.supportportal.service;
 
 import java.util.Date;
-import java.util.Properties;
-
-import javax.mail.Message;
-import javax.mail.MessagingException;
-import javax.mail.Session;
-import javax.mail.internet.InternetAddress;
-import javax.mail.internet.MimeMessage;
 
 import org.springframework.stereotype.Service;
 
-import com.sun.mail.smtp.SMTPTransport;
+import com.supportportal.domain.EmailMessage;
+import com.supportportal.enumeration.EmailStatus;
+import com.supportportal.repository.EmailOutboxRepository;
+import com.supportportal.utility.RequestTimings;
 
 import static com.supportportal.constant.EmailConstant.*;
 
+/**
+ * Queues outgoing mail in the outbox table. Delivery happens later on the
+ * {@link EmailOutboxDispatcher} workers, so callers never wait on the mail server.
+ */
 @Service
 public class EmailService {
 
-    public void sendNewPasswordEmail(String firstName, String password, String email) throws MessagingException {
-        Message message = createEmail(firstName, password, email);
-        SMTPTransport smtpTransport = (SMTPTransport) getEmailSession().getTransport(SIMPLE_MAIL_TRANSFER_PROTOCOL);
-        smtpTransport.connect(GMAIL_SMTP_SERVER, USERNAME, PASSWORD);
-        smtpTransport.sendMessage(message, message.getAllRecipients());
-        smtpTransport.close();
-    }
+    private final EmailOutboxRepository emailOutboxRepository;
 
-    private Message createEmail(String firstName, String password, String email) throws MessagingException {
-        Message message = new MimeMessage(getEmailSession());
-        message.setFrom(new InternetAddress(FROM_EMAIL));
-        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email, false));
-        message.setRecipients(Message.RecipientType.CC, InternetAddress.parse(CC_EMAIL, false));
-        message.setSubject(EMAIL_SUBJECT);
-        message.setText("Hello " + firstName + ",\n\nYour new account password is: " + password + "\n\nThe Support Team");
-        message.setSentDate(new Date());
-        message.saveChanges();
-        return message;
+    public EmailService(EmailOutboxRepository emailOutboxRepository) {
+        this.emailOutboxRepository = emailOutboxRepository;
     }
 
-    private Session getEmailSession() {
-        Properties properties = System.getProperties();
-        properties.put(SMTP_HOST, GMAIL_SMTP_SERVER);
-        properties.put(SMTP_AUTH, true);
-        properties.put(SMTP_PORT, DEFAULT_PORT);
-        properties.put(SMTP_STARTTLS_ENABLE, true);
-        properties.put(SMTP_STARTTLS_REQUIRED, true);
+    public EmailMessage sendNewPasswordEmail(String firstName, String password, String email) {
+        return enqueue(email, EMAIL_SUBJECT,
+                "Hello " + firstName + ",\n\nYour new account password is: " + password + "\n\nThe Support Team");
+    }
 
-        return Session.getInstance(properties, null);
+    private EmailMessage enqueue(String recipient, String subject, String body) {
+        Date now = new Date();
+        EmailMessage emailMessage = new EmailMessage();
+        emailMessage.setRecipient(recipient);
+        emailMessage.setCc(CC_EMAIL);
+        emailMessage.setSubject(subject);
+        emailMessage.setBody(body);
+        emailMessage.setStatus(EmailStatus.PENDING);
+        emailMessage.setAttempts(0);
+        emailMessage.setNextAttemptAt(now);
+        emailMessage.setCreatedAt(now);
+        try (RequestTimings.Span span = RequestTimings.span("email", "enqueue")) {
+            return emailOutboxRepository.save(emailMessage);
+        }
     }
 }
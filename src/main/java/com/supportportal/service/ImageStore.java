@@ -0,0 +1,41 @@
+package com.supportportal.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.supportportal.domain.StoredImage;
+
+/**
+ * Blob storage for profile images. Keys are derived from the content they name, so a key is written at most
+ * once and never changes afterwards: {@link #put} of an existing key keeps what is stored, and a returned
+ * {@link StoredImage} can be cached for as long as the key is not deleted.
+ */
+public interface ImageStore {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Stores what {@code content} writes under the key, streamed so the image is never held in memory as a
+     * whole. Nothing is stored when the writer fails.
+     */
+    void put(String key, ContentWriter content) throws IOException;
+
+    default void put(String key, byte[] content) throws IOException {
+        put(key, outputStream -> outputStream.write(content));
+    }
+
+    /**
+     * Returns the image stored under the key, or {@code null} when there is none. Images on a local file system
+     * are returned with their path and without content; remote ones are returned with a source that streams
+     * their content, so looking an image up does not download it.
+     */
+    StoredImage find(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    @FunctionalInterface
+    interface ContentWriter {
+
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,103 @@
+package com.supportportal.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.supportportal.domain.User;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records successful logins in memory and writes them to the database in batches, so the
+ * authentication path never waits on an UPDATE. Several logins of the same user between two
+ * flushes collapse into a single row update.
+ */
+@Service
+public class LastLoginService {
+
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE user SET last_login_date_display = ?, last_login_date = ? WHERE id = ?";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final ConcurrentHashMap<Long, LastLogin> pendingLogins = new ConcurrentHashMap<>();
+    private final AtomicLong droppedLogins = new AtomicLong();
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+    private final int maximumPending;
+
+    public LastLoginService(JdbcTemplate jdbcTemplate, UserCache userCache,
+                            @Value("${user.last-login.maximum-pending:10000}") int maximumPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userCache = userCache;
+        this.maximumPending = maximumPending;
+    }
+
+    public void recordLogin(User user) {
+        Date loginDate = new Date();
+        Date previousLoginDate = user.getLastLoginDate() != null ? user.getLastLoginDate() : loginDate;
+        user.setLastLoginDateDisplay(previousLoginDate);
+        user.setLastLoginDate(loginDate);
+        if (user.getId() == null) {
+            return;
+        }
+        userCache.recordLogin(user);
+        if (pendingLogins.size() >= maximumPending && !pendingLogins.containsKey(user.getId())) {
+            droppedLogins.incrementAndGet();
+            return;
+        }
+        pendingLogins.merge(user.getId(), new LastLogin(previousLoginDate, loginDate),
+                (older, newer) -> new LastLogin(older.loginDate, newer.loginDate));
+    }
+
+    @Scheduled(fixedDelayString = "${user.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        long dropped = droppedLogins.getAndSet(0);
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} last login updates because {} were already pending", dropped, maximumPending);
+        }
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(pendingLogins.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            LastLogin lastLogin = pendingLogins.remove(userId);
+            if (lastLogin != null) {
+                batchArgs.add(new Object[] { lastLogin.previousLoginDate, lastLogin.loginDate, userId });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to write {} last login updates: {}", batchArgs.size(), e.getMessage());
+            for (Object[] args : batchArgs) {
+                pendingLogins.putIfAbsent((Long) args[2], new LastLogin((Date) args[0], (Date) args[1]));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private static final class LastLogin {
+        private final Date previousLoginDate;
+        private final Date loginDate;
+
+        private LastLogin(Date previousLoginDate, Date loginDate) {
+            this.previousLoginDate = previousLoginDate;
+            this.loginDate = loginDate;
+        }
+    }
+}
@@ -1,54 +1,87 @@
 package com.supportportal.service;
 
-import java.util.concurrent.ExecutionException;
+import static com.supportportal.constant.SecurityConstant.TOO_MANY_LOGIN_ATTEMPTS;
+
 import java.util.concurrent.TimeUnit;
 
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.supportportal.exception.domain.TooManyLoginAttemptsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Tracks failed logins per username and per remote address. A username over its limit gets the account
+ * locked, while an address over its limit is turned away before any password is checked. Failures and
+ * lockouts are counted as {@code login.attempts.failed} and {@code login.attempts.lockouts}, tagged by
+ * whether the key was a username or an address.
+ */
 @Service
 public class LoginAttemptService {
 
-    private static final int MAXIMUM_NUMBER_OF_ATTEMPTS = 5;
-    private static final int ATTEMPT_INCREMENT = 1;
-    private LoadingCache<String, Integer> loginAttemptCache;
-
-    public LoginAttemptService() {
-        super();
-        loginAttemptCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(15, TimeUnit.MINUTES)
-                .maximumSize(100)
-                .build(new CacheLoader<String, Integer>() {
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
+    private static final String USERNAME_KEY_PREFIX = "user:";
+    private static final String ADDRESS_KEY_PREFIX = "ip:";
+    private static final String FAILED_METRIC = "login.attempts.failed";
+    private static final String LOCKOUTS_METRIC = "login.attempts.lockouts";
+
+    private final LoginAttemptStore loginAttemptStore;
+    private final int maximumAttempts;
+    private final int maximumAttemptsPerAddress;
+    private final long bucketSeconds;
+    private final Counter failedUsernames;
+    private final Counter failedAddresses;
+    private final Counter lockedUsernames;
+    private final Counter lockedAddresses;
+
+    public LoginAttemptService(LoginAttemptStore loginAttemptStore,
+                               @Value("${security.login-attempts.maximum-attempts:5}") int maximumAttempts,
+                               @Value("${security.login-attempts.maximum-attempts-per-address:20}") int maximumAttemptsPerAddress,
+                               @Value("${security.login-attempts.window-minutes:15}") long windowMinutes,
+                               @Value("${security.login-attempts.window-buckets:15}") int buckets,
+                               MeterRegistry meterRegistry) {
+        this.loginAttemptStore = loginAttemptStore;
+        this.maximumAttempts = maximumAttempts;
+        this.maximumAttemptsPerAddress = maximumAttemptsPerAddress;
+        this.bucketSeconds = Math.max(1, TimeUnit.MINUTES.toSeconds(windowMinutes) / buckets);
+        this.failedUsernames = meterRegistry.counter(FAILED_METRIC, "key", "username");
+        this.failedAddresses = meterRegistry.counter(FAILED_METRIC, "key", "address");
+        this.lockedUsernames = meterRegistry.counter(LOCKOUTS_METRIC, "key", "username");
+        this.lockedAddresses = meterRegistry.counter(LOCKOUTS_METRIC, "key", "address");
     }
 
     public void evictUserFromLoginAttemptCache(String username) {
-        loginAttemptCache.invalidate(username);
+        loginAttemptStore.reset(USERNAME_KEY_PREFIX + username);
     }
 
     public void addUserToLoginAttemptCache(String username) {
-    	int attemps = 0;
-    	try {
-
-    		attemps =  ATTEMPT_INCREMENT + loginAttemptCache.get(username);
-    	}catch (ExecutionException e) {
-    		e.printStackTrace();//
-    	}
-    	loginAttemptCache.put(username, attemps);
+        loginAttemptStore.increment(USERNAME_KEY_PREFIX + username);
+        failedUsernames.increment();
     }
 
     public boolean hasExceededMaxAttempts(String username) {
-    	try {
-        return loginAttemptCache.get(username) >= MAXIMUM_NUMBER_OF_ATTEMPTS;
-    	} catch (ExecutionException e) {
-    		e.printStackTrace();
-    	}
-    	return false;
+        if (loginAttemptStore.getAttempts(USERNAME_KEY_PREFIX + username) >= maximumAttempts) {
+            lockedUsernames.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void addAddressToLoginAttemptCache(String remoteAddress) {
+        loginAttemptStore.increment(ADDRESS_KEY_PREFIX + remoteAddress);
+        failedAddresses.increment();
+    }
+
+    /**
+     * Rejects a login from an address with too many recent failures. The client is told to retry once the
+     * oldest bucket of the window has slid out.
+     */
+    public void validateAddress(String remoteAddress) throws TooManyLoginAttemptsException {
+        if (loginAttemptStore.getAttempts(ADDRESS_KEY_PREFIX + remoteAddress) >= maximumAttemptsPerAddress) {
+            lockedAddresses.increment();
+            throw new TooManyLoginAttemptsException(TOO_MANY_LOGIN_ATTEMPTS, bucketSeconds);
+        }
     }
 }
@@ -0,0 +1,17 @@
+package com.supportportal.service;
+
+/**
+ * Counts failed logins per key over a sliding window. The window is split into buckets, and attempts
+ * older than the oldest bucket stop counting without the key having to be reset.
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Records one failed attempt and returns the number of attempts now counted in the window.
+     */
+    int increment(String key);
+
+    int getAttempts(String key);
+
+    void reset(String key);
+}
@@ -0,0 +1,450 @@
+package com.supportportal.service;
+
+import static com.supportportal.constant.FileConstant.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.supportportal.constant.FileConstant;
+import com.supportportal.domain.StoredImage;
+import com.supportportal.exception.domain.ImageTooLargeException;
+import com.supportportal.exception.domain.InvalidImageException;
+import com.supportportal.utility.BoundedExecutor;
+import com.supportportal.utility.RequestTimings;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns an uploaded profile image into a JPEG at its original size plus one thumbnail per configured size, and
+ * keeps them in the {@link ImageStore} under the SHA-256 of the upload: {@code {imageId}} and
+ * {@code {imageId}-{size}}. The same upload always yields the same id, so duplicates are stored once and a
+ * stored image never changes, which makes the id its ETag and lets clients cache it forever. Uploads are
+ * checked against the byte and pixel limits before anything is decoded, and decoding and resizing run on a
+ * dedicated {@link BoundedExecutor}. Small images are kept in a byte-bounded LRU cache, optionally in direct
+ * buffers, and the default image, seeded at startup from the classpath, is pinned in memory once read. The
+ * size of every image read from or written to the store is recorded as {@code profile.image.bytes}, tagged
+ * with the operation.
+ */
+@Service
+public class ProfileImageService {
+
+    private static final String IMAGE_PROCESSING = "image-processing";
+    private static final String IMAGE_CACHE = "profile.image.cache";
+    private static final String HIT_RATIO_METRIC = "profile.image.cache.hit.ratio";
+    private static final String RESIDENT_BYTES_METRIC = "profile.image.cache.resident.bytes";
+    private static final String PINNED_BYTES_METRIC = "profile.image.pinned.bytes";
+    private static final String IMAGE_BYTES_METRIC = "profile.image.bytes";
+    private static final String FILE_SPAN = "file";
+    private static final Pattern IMAGE_ID = Pattern.compile("[0-9a-f]{64}");
+    private static final int SNIFF_LENGTH = 8;
+    private static final byte[][] IMAGE_SIGNATURES = {
+            { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF },
+            { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' },
+            { 'G', 'I', 'F', '8' },
+            { 'B', 'M' }
+    };
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final ImageStore imageStore;
+    private final int[] thumbnailSizes;
+    private final long maxUploadBytes;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final BoundedExecutor imageExecutor;
+    private final Cache<String, StoredImage> hotImages;
+    private final ConcurrentHashMap<String, StoredImage> pinnedImages = new ConcurrentHashMap<>();
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long maxEntryBytes;
+    private final boolean directBuffers;
+    private final DistributionSummary readBytes;
+    private final DistributionSummary writtenBytes;
+
+    public ProfileImageService(ImageStore imageStore,
+                               @Value("${image.thumbnail-sizes:64,128,512}") int[] thumbnailSizes,
+                               @Value("${image.max-upload-size:1MB}") DataSize maxUploadSize,
+                               @Value("${image.max-pixels:40000000}") long maxPixels,
+                               @Value("${image.jpeg-quality:0.85}") float jpegQuality,
+                               @Value("${image.executor.threads:0}") int threads,
+                               @Value("${image.executor.queue-capacity:16}") int queueCapacity,
+                               @Value("${image.executor.retry-after-seconds:1}") long retryAfterSeconds,
+                               @Value("${image.cache.maximum-size:64MB}") DataSize cacheSize,
+                               @Value("${image.cache.maximum-entry-size:256KB}") DataSize maxEntrySize,
+                               @Value("${image.cache.direct:true}") boolean directBuffers,
+                               MeterRegistry meterRegistry) {
+        this.imageStore = imageStore;
+        this.thumbnailSizes = Arrays.stream(thumbnailSizes).sorted().toArray();
+        this.maxUploadBytes = maxUploadSize.toBytes();
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        this.imageExecutor = new BoundedExecutor(IMAGE_PROCESSING,
+                threads > 0 ? threads : BoundedExecutor.defaultThreads(), queueCapacity, retryAfterSeconds, meterRegistry);
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        this.directBuffers = directBuffers;
+        this.hotImages = CacheBuilder.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .<String, StoredImage>weigher((key, image) -> (int) image.getContentLength())
+                .removalListener((RemovalListener<String, StoredImage>) removal ->
+                        residentBytes.addAndGet(-removal.getValue().getContentLength()))
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, hotImages, IMAGE_CACHE);
+        Gauge.builder(HIT_RATIO_METRIC, hotImages, cache -> cache.stats().hitRate()).register(meterRegistry);
+        Gauge.builder(RESIDENT_BYTES_METRIC, residentBytes, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(PINNED_BYTES_METRIC, pinnedImages,
+                pinned -> pinned.values().stream().mapToLong(StoredImage::getContentLength).sum())
+                .register(meterRegistry);
+        this.readBytes = imageBytes("read", meterRegistry);
+        this.writtenBytes = imageBytes("write", meterRegistry);
+    }
+
+    /**
+     * Stores the upload with its thumbnails and returns its image id. The upload is read as a stream three times
+     * at most, from wherever the container spooled it: a few bytes to check it is an image at all, once to hash
+     * it, and once to decode it unless the same upload is already stored. The full-size image is written last,
+     * so its presence means the thumbnails are there too.
+     */
+    public String saveProfileImage(MultipartFile profileImage) throws IOException {
+        return saveProfileImage(profileImage, profileImage.getSize());
+    }
+
+    /**
+     * Stores an image of {@code size} bytes read from {@code profileImage}, with the same checks as an upload.
+     */
+    public String saveProfileImage(InputStreamSource profileImage, long size) throws IOException {
+        if (size > maxUploadBytes) {
+            throw new ImageTooLargeException(IMAGE_TOO_LARGE + DataSize.ofBytes(maxUploadBytes).toKilobytes() + " KB");
+        }
+        String imageId;
+        try (RequestTimings.Span span = RequestTimings.span(FILE_SPAN, "hashUpload")) {
+            sniff(profileImage);
+            try (HashingInputStream inputStream = new HashingInputStream(Hashing.sha256(), profileImage.getInputStream())) {
+                ByteStreams.exhaust(inputStream);
+                imageId = inputStream.hash().toString();
+            }
+        }
+        if (imageStore.exists(imageId)) {
+            return imageId;
+        }
+        try (RequestTimings.Span span = RequestTimings.span(FILE_SPAN, "writeImages")) {
+            imageExecutor.call(() -> {
+                try (InputStream inputStream = profileImage.getInputStream()) {
+                    writeImages(imageId, decode(inputStream));
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return imageId;
+    }
+
+    /**
+     * Looks up a stored profile image, or returns {@code null} when it does not exist. With a {@code size}, the
+     * smallest thumbnail at least that large is returned, falling back to the full-size image when no such
+     * thumbnail exists. Images up to {@code image.cache.maximum-entry-size} are returned with their content
+     * from the cache without touching the store; larger ones are streamed from their path or source.
+     */
+    public StoredImage findProfileImage(String imageId, Integer size) throws IOException {
+        if (!IMAGE_ID.matcher(imageId).matches()) {
+            return null;
+        }
+        String key = imageKey(imageId, size);
+        StoredImage storedImage = hotImages.getIfPresent(key);
+        if (storedImage != null) {
+            return storedImage;
+        }
+        long generation = invalidations.get();
+        storedImage = readImage(imageId, key);
+        if (storedImage == null || storedImage.getContentLength() > maxEntryBytes) {
+            return storedImage;
+        }
+        storedImage = withContent(storedImage);
+        if (storedImage.getContent() != null && generation == invalidations.get()) {
+            residentBytes.addAndGet(storedImage.getContentLength());
+            hotImages.put(key, storedImage);
+        }
+        return storedImage;
+    }
+
+    /**
+     * Stores the bundled {@value FileConstant#DEFAULT_IMAGE_RESOURCE} with its thumbnails as the default image
+     * unless the store already has one, so a deployment can replace it by storing its own. A store that cannot
+     * be reached at startup only leaves the default image missing.
+     */
+    @PostConstruct
+    public void seedDefaultImage() {
+        try {
+            if (imageStore.exists(DEFAULT_IMAGE_ID)) {
+                return;
+            }
+            try (InputStream inputStream = new ClassPathResource(DEFAULT_IMAGE_RESOURCE).getInputStream()) {
+                writeImages(DEFAULT_IMAGE_ID, decode(inputStream));
+            }
+            LOGGER.info("Stored the default profile image from {}", DEFAULT_IMAGE_RESOURCE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to store the default profile image: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the shared default image, stored under {@value FileConstant#DEFAULT_IMAGE_ID}, read once and then
+     * kept in memory for the life of the process.
+     */
+    public StoredImage findDefaultImage(Integer size) throws IOException {
+        String key = imageKey(DEFAULT_IMAGE_ID, size);
+        StoredImage pinned = pinnedImages.get(key);
+        if (pinned == null) {
+            StoredImage storedImage = readImage(DEFAULT_IMAGE_ID, key);
+            if (storedImage == null) {
+                return null;
+            }
+            pinned = withContent(storedImage);
+            if (pinned.getContent() != null) {
+                pinnedImages.put(key, pinned);
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Deletes the image and its thumbnails. The caller makes sure no user refers to it any more, since
+     * identical uploads share one image.
+     */
+    public void deleteProfileImage(String imageId) throws IOException {
+        try {
+            imageStore.delete(imageId);
+            for (int thumbnailSize : thumbnailSizes) {
+                imageStore.delete(thumbnailKey(imageId, thumbnailSize));
+            }
+        } finally {
+            invalidations.incrementAndGet();
+            String prefix = imageId + THUMBNAIL_SEPARATOR;
+            hotImages.asMap().keySet().removeIf(key -> key.equals(imageId) || key.startsWith(prefix));
+        }
+    }
+
+    private StoredImage readImage(String imageId, String key) throws IOException {
+        StoredImage storedImage = imageStore.find(key);
+        if (storedImage == null && !key.equals(imageId)) {
+            storedImage = imageStore.find(imageId);
+        }
+        if (storedImage != null) {
+            readBytes.record(storedImage.getContentLength());
+        }
+        return storedImage;
+    }
+
+    private StoredImage withContent(StoredImage storedImage) throws IOException {
+        if (storedImage.getContent() != null) {
+            return storedImage;
+        }
+        long length = storedImage.getContentLength();
+        ByteBuffer buffer = directBuffers ? ByteBuffer.allocateDirect((int) length) : ByteBuffer.allocate((int) length);
+        try (RequestTimings.Span span = RequestTimings.span(FILE_SPAN, "readImage");
+             ReadableByteChannel channel = open(storedImage)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() != length) {
+            return storedImage;
+        }
+        return storedImage.withContent(buffer.asReadOnlyBuffer());
+    }
+
+    private static ReadableByteChannel open(StoredImage storedImage) throws IOException {
+        if (storedImage.getPath() != null) {
+            return FileChannel.open(storedImage.getPath(), StandardOpenOption.READ);
+        }
+        return Channels.newChannel(storedImage.getSource().getInputStream());
+    }
+
+    private Integer thumbnailSize(Integer size) {
+        if (size == null) {
+            return null;
+        }
+        for (int thumbnailSize : thumbnailSizes) {
+            if (thumbnailSize >= size) {
+                return thumbnailSize;
+            }
+        }
+        return null;
+    }
+
+    private String imageKey(String imageId, Integer size) {
+        Integer thumbnailSize = thumbnailSize(size);
+        return thumbnailSize == null ? imageId : thumbnailKey(imageId, thumbnailSize);
+    }
+
+    /**
+     * Rejects uploads whose first bytes match none of the formats that can be decoded, before anything else
+     * reads them.
+     */
+    private void sniff(InputStreamSource profileImage) throws IOException {
+        byte[] header;
+        try (InputStream inputStream = profileImage.getInputStream()) {
+            header = inputStream.readNBytes(SNIFF_LENGTH);
+        }
+        for (byte[] signature : IMAGE_SIGNATURES) {
+            if (header.length >= signature.length
+                    && Arrays.equals(header, 0, signature.length, signature, 0, signature.length)) {
+                return;
+            }
+        }
+        throw new InvalidImageException(NOT_AN_IMAGE);
+    }
+
+    private BufferedImage decode(InputStream inputStream) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = imageInputStream == null ? null : ImageIO.getImageReaders(imageInputStream);
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidImageException(NOT_AN_IMAGE);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new ImageTooLargeException(IMAGE_DIMENSIONS_TOO_LARGE + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeImages(String imageId, BufferedImage image) throws IOException {
+        BufferedImage original = toRgb(image);
+        BufferedImage scaled = original;
+        for (int i = thumbnailSizes.length - 1; i >= 0; i--) {
+            BufferedImage thumbnail = scaleToFit(original, scaled, thumbnailSizes[i]);
+            imageStore.put(thumbnailKey(imageId, thumbnailSizes[i]), outputStream -> writeJpeg(thumbnail, outputStream));
+            scaled = thumbnail;
+        }
+        imageStore.put(imageId, outputStream -> writeJpeg(original, outputStream));
+    }
+
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Scales the image so its longer side is at most {@code size}, keeping the aspect ratio of {@code original}.
+     * Large reductions are done by halving in steps, which keeps detail without the cost of a bicubic pass over
+     * the full image.
+     */
+    private BufferedImage scaleToFit(BufferedImage original, BufferedImage image, int size) {
+        int longerSide = Math.max(original.getWidth(), original.getHeight());
+        if (longerSide <= size) {
+            return image;
+        }
+        int targetWidth = Math.max(1, (int) Math.round((double) original.getWidth() * size / longerSide));
+        int targetHeight = Math.max(1, (int) Math.round((double) original.getHeight() * size / longerSide));
+        BufferedImage scaled = image;
+        while (scaled.getWidth() != targetWidth || scaled.getHeight() != targetHeight) {
+            int width = Math.max(targetWidth, scaled.getWidth() / 2);
+            int height = Math.max(targetHeight, scaled.getHeight() / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(scaled, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            scaled = step;
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream outputStream) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(JPG_EXTENSION).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(countingOutputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        writtenBytes.record(countingOutputStream.getCount());
+    }
+
+    private static DistributionSummary imageBytes(String operation, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(IMAGE_BYTES_METRIC)
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static String thumbnailKey(String imageId, int size) {
+        return imageId + THUMBNAIL_SEPARATOR + size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        imageExecutor.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.supportportal.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserSummary;
+import com.supportportal.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Read-through cache in front of the {@link UserRepository} lookups by username, email and user id. A loaded
+ * user is kept once under its database id, and its username, email and user id each map to that id, so an
+ * eviction drops one entry. Both maps are bounded by {@code user.cache.maximum-size} and expire
+ * {@code user.cache.ttl} after a load. Callers always get their own copy, so changing a returned user never
+ * changes the cache.
+ * <p>
+ * Cached users can be as old as the TTL, so they are for read-only lookups and summaries only. Anything that
+ * authenticates a user or writes one back loads it from the {@link UserRepository}.
+ * <p>
+ * Every change to a user must go through {@link #evict}, which drops the user at once and again when the
+ * surrounding transaction completes, so a lookup racing the change cannot cache what it replaced. With a
+ * {@link UserCacheInvalidationChannel} the eviction reaches the other nodes as well; without one, other nodes
+ * serve the old user for up to the TTL.
+ */
+@Service
+public class UserCache {
+
+    private static final String USER_CACHE = "user.cache";
+    private static final String HIT_RATIO_METRIC = "user.cache.hit.ratio";
+    private static final String USERNAME_KEY = "username:";
+    private static final String EMAIL_KEY = "email:";
+    private static final String USER_ID_KEY = "userId:";
+
+    private final Cache<String, Long> userIds;
+    private final Cache<Long, User> users;
+    private final AtomicLong evictions = new AtomicLong();
+    private final UserRepository userRepository;
+    private final UserCacheInvalidationChannel invalidationChannel;
+    private final boolean enabled;
+
+    public UserCache(UserRepository userRepository, Optional<UserCacheInvalidationChannel> invalidationChannel,
+                     @Value("${user.cache.enabled:true}") boolean enabled,
+                     @Value("${user.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${user.cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.invalidationChannel = invalidationChannel.orElse(null);
+        this.enabled = enabled;
+        this.userIds = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize * 3)
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.users = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        invalidationChannel.ifPresent(channel -> channel.subscribe(this::evictLocally));
+        GuavaCacheMetrics.monitor(meterRegistry, userIds, USER_CACHE);
+        Gauge.builder(HIT_RATIO_METRIC, userIds, cache -> cache.stats().hitRate()).register(meterRegistry);
+    }
+
+    public User findByUsername(String username) {
+        return find(USERNAME_KEY + username, () -> userRepository.findUserByUsername(username));
+    }
+
+    public User findByEmail(String email) {
+        return find(EMAIL_KEY + email, () -> userRepository.findUserByEmail(email));
+    }
+
+    public User findByUserId(String userId) {
+        return find(USER_ID_KEY + userId, () -> userRepository.findUserByUserId(userId));
+    }
+
+    public UserSummary findSummaryByUsername(String username) {
+        User user = findByUsername(username);
+        if (user == null) {
+            return null;
+        }
+        return new UserSummary(user.getId(), user.getUserId(), user.getFirstName(), user.getLastName(),
+                user.getUsername(), user.getEmail(), user.getRole(), user.getProfileImageUrl(), user.isActive(),
+                user.isNotLocked());
+    }
+
+    /**
+     * Drops the user from this node now and after the current transaction, and announces the change on the
+     * invalidation channel, inside the current transaction when there is one.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evictLocally(userId);
+        if (invalidationChannel != null) {
+            invalidationChannel.publish(userId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocally(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Carries the login dates recorded by {@link LastLoginService} into the cached user, which would otherwise
+     * keep the dates it was loaded with until the batched update reaches the database and the entry expires.
+     */
+    public void recordLogin(User user) {
+        if (!enabled || user.getId() == null) {
+            return;
+        }
+        users.asMap().computeIfPresent(user.getId(), (ignored, cached) -> {
+            User updated = copy(cached);
+            updated.setLastLoginDate(user.getLastLoginDate());
+            updated.setLastLoginDateDisplay(user.getLastLoginDateDisplay());
+            return updated;
+        });
+    }
+
+    private User find(String key, Supplier<User> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Long id = userIds.getIfPresent(key);
+        User cached = id == null ? null : users.getIfPresent(id);
+        if (cached != null && Arrays.asList(keys(cached)).contains(key)) {
+            return copy(cached);
+        }
+        long generation = evictions.get();
+        User user = loader.get();
+        if (user == null) {
+            return null;
+        }
+        User snapshot = copy(user);
+        if (generation == evictions.get()) {
+            users.put(snapshot.getId(), snapshot);
+            for (String userKey : keys(snapshot)) {
+                userIds.put(userKey, snapshot.getId());
+            }
+        }
+        return copy(snapshot);
+    }
+
+    /**
+     * Drops the user in constant time. Its keys are left pointing at the missing entry, and a lookup that
+     * finds a key pointing at no user, or at a user the key no longer names, loads it again.
+     */
+    private void evictLocally(long userId) {
+        evictions.incrementAndGet();
+        users.invalidate(userId);
+    }
+
+    private static String[] keys(User user) {
+        return new String[] { USERNAME_KEY + user.getUsername(), EMAIL_KEY + user.getEmail(),
+                USER_ID_KEY + user.getUserId() };
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,20 @@
+package com.supportportal.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Carries user cache invalidations between nodes, so a user changed on one node is not served stale by the
+ * others until their entries expire.
+ */
+public interface UserCacheInvalidationChannel {
+
+    /**
+     * Announces that the user changed. Called inside the transaction that changes the user, when there is one.
+     */
+    void publish(long userId);
+
+    /**
+     * Registers the listener that evicts users announced by any node, this one included.
+     */
+    void subscribe(LongConsumer listener);
+}
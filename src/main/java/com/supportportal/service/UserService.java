@@ -1,6 +1,7 @@
 package com.supportportal.service;
 
 import com.supportportal.domain.User;
+import com.supportportal.domain.UserSummary;
 import com.supportportal.exception.domain.EmailExistException;
 import com.supportportal.exception.domain.EmailNotFoundException;
 import com.supportportal.exception.domain.UserNotFoundException;
@@ -8,31 +9,39 @@ import com.supportportal.exception.domain.UsernameExistException;
 
 import java.io.IOException;
 import java.util.List;
-import javax.mail.MessagingException;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface UserService {
 	User register(String firstName, String lastName, String username, String email)
 			throws UserNotFoundException, UsernameExistException, EmailExistException;
 
-	List<User> getUsers();
+	Slice<UserSummary> getUsers(Pageable pageable);
+
+	List<UserSummary> getUsersAfter(Long lastId, int size);
+
+	void streamUsers(Consumer<UserSummary> consumer);
 
 	User findUserByUsername(String username);
 
+	UserSummary findUserSummaryByUsername(String username);
+
 	User findUserByEmail(String email);
 
 	void deleteUser(String username) throws IOException;
 
 	User addNewUse(String firstName, String lastName, String username, String email, String role, boolean isNonLocked,
 			boolean isActive, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException;
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException;
 
 	User UpdateUser(String currentUsername, String newFirstName, String newLastName, String newUsername,
 			String newEmail, String role, boolean isNonLocked, boolean isActive, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException;
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException;
 
-	void resetPassword(String email) throws MessagingException, EmailNotFoundException;
+	void resetPassword(String email) throws EmailNotFoundException;
 
 	User updateProfileImage(String username, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException;
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException;
 }
@@ -0,0 +1,132 @@
+package com.supportportal.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.supportportal.service.LoginAttemptStore;
+
+/**
+ * Per-node store backed by a {@link ConcurrentHashMap} of sliding-window counters. A counter is one
+ * {@link AtomicLongArray} slot per bucket holding the bucket number and its count, so increments are a
+ * single compare-and-set and allocate nothing once the key exists. Bucket numbers count from the moment the
+ * store was created, so they fit beside the count for any bucket length of a millisecond or more. The map is
+ * not capped in size: idle counters are removed by {@link #purgeExpired()} rather than evicted while they
+ * still matter.
+ * <p>
+ * An increment that lands on a counter just removed by {@link #reset} or {@link #purgeExpired()} notices the
+ * removal and is applied again to the key's current counter, so it is never lost.
+ */
+@Service
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long MAXIMUM_BUCKET = (1L << (Long.SIZE - COUNT_BITS)) - 1;
+
+    private final ConcurrentHashMap<String, AtomicLongArray> counters;
+    private final long bucketMillis;
+    private final int buckets;
+    private final Clock clock;
+    private final long epochMillis;
+
+    @Autowired
+    public InMemoryLoginAttemptStore(@Value("${security.login-attempts.window-minutes:15}") long windowMinutes,
+                                     @Value("${security.login-attempts.window-buckets:15}") int buckets,
+                                     @Value("${security.login-attempts.initial-capacity:65536}") int initialCapacity) {
+        this(Duration.ofMinutes(windowMinutes), buckets, initialCapacity, Clock.systemUTC());
+    }
+
+    public InMemoryLoginAttemptStore(Duration window, int buckets, int initialCapacity, Clock clock) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("security.login-attempts.window-buckets must be between 1 and the "
+                    + "window length in milliseconds, was " + buckets + " for a window of " + window);
+        }
+        this.counters = new ConcurrentHashMap<>(initialCapacity);
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.clock = clock;
+        this.epochMillis = clock.millis();
+    }
+
+    @Override
+    public int increment(String key) {
+        long bucket = currentBucket();
+        AtomicLongArray counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new AtomicLongArray(buckets));
+        }
+        add(counter, bucket);
+        if (counters.get(key) != counter) {
+            counter = counters.compute(key, (k, current) -> {
+                AtomicLongArray replacement = current != null ? current : new AtomicLongArray(buckets);
+                add(replacement, bucket);
+                return replacement;
+            });
+        }
+        return sum(counter, bucket);
+    }
+
+    private void add(AtomicLongArray counter, long bucket) {
+        int slot = (int) (bucket % buckets);
+        while (true) {
+            long value = counter.get(slot);
+            long next;
+            if (value >>> COUNT_BITS == bucket) {
+                if ((value & COUNT_MASK) == COUNT_MASK) {
+                    break;
+                }
+                next = value + 1;
+            } else {
+                next = bucket << COUNT_BITS | 1;
+            }
+            if (counter.compareAndSet(slot, value, next)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public int getAttempts(String key) {
+        AtomicLongArray counter = counters.get(key);
+        return counter == null ? 0 : sum(counter, currentBucket());
+    }
+
+    @Override
+    public void reset(String key) {
+        counters.remove(key);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-attempts.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long bucket = currentBucket();
+        for (String key : counters.keySet()) {
+            counters.computeIfPresent(key, (k, counter) -> sum(counter, bucket) == 0 ? null : counter);
+        }
+    }
+
+    private int sum(AtomicLongArray counter, long currentBucket) {
+        long oldestBucket = currentBucket - buckets + 1;
+        long total = 0;
+        for (int slot = 0; slot < buckets; slot++) {
+            long value = counter.get(slot);
+            long bucket = value >>> COUNT_BITS;
+            if (bucket >= oldestBucket && bucket <= currentBucket) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    private long currentBucket() {
+        return Math.min(Math.max(0, clock.millis() - epochMillis) / bucketMillis, MAXIMUM_BUCKET);
+    }
+}
@@ -0,0 +1,192 @@
+package com.supportportal.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.supportportal.service.LoginAttemptStore;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Store shared by every node through the {@code login_attempt} table, one row per key and window bucket.
+ * Failed attempts are added to local deltas and written by {@link #flush()} as one batch of atomic upserts,
+ * and the shared count of a key is read at most once per {@code security.login-attempts.refresh-ms}, so a
+ * failed login does not wait on the database. A node sees the attempts of other nodes after their next
+ * flush and its own refresh.
+ * <p>
+ * Every node also counts its own attempts in memory, and falls back to that count while the database cannot
+ * be read, so an outage limits attempts per node instead of lifting the limit.
+ */
+@Service
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "jdbc")
+public class JdbcLoginAttemptStore implements LoginAttemptStore {
+
+    private static final String UPSERT_ATTEMPTS_SQL =
+            "INSERT INTO login_attempt (attempt_key, bucket, attempts) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE attempts = attempts + VALUES(attempts)";
+    private static final String SELECT_ATTEMPTS_SQL =
+            "SELECT COALESCE(SUM(attempts), 0) FROM login_attempt WHERE attempt_key = ? AND bucket >= ?";
+    private static final String DELETE_ATTEMPTS_SQL = "DELETE FROM login_attempt WHERE attempt_key = ?";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM login_attempt WHERE bucket < ?";
+
+    private static final int LOCAL_INITIAL_CAPACITY = 1024;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final ConcurrentHashMap<String, Integer> pendingIncrements = new ConcurrentHashMap<>();
+    private final Set<String> pendingResets = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Integer> sharedAttempts;
+    private final InMemoryLoginAttemptStore localAttempts;
+    private final JdbcTemplate jdbcTemplate;
+    private final long bucketMillis;
+    private final int buckets;
+
+    public JdbcLoginAttemptStore(JdbcTemplate jdbcTemplate,
+                                 @Value("${security.login-attempts.window-minutes:15}") long windowMinutes,
+                                 @Value("${security.login-attempts.window-buckets:15}") int buckets,
+                                 @Value("${security.login-attempts.refresh-ms:2000}") long refreshMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketMillis = Math.max(1, TimeUnit.MINUTES.toMillis(windowMinutes) / buckets);
+        this.buckets = buckets;
+        this.sharedAttempts = CacheBuilder.newBuilder()
+                .expireAfterWrite(refreshMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.localAttempts = new InMemoryLoginAttemptStore(Duration.ofMinutes(windowMinutes), buckets,
+                LOCAL_INITIAL_CAPACITY, Clock.systemUTC());
+    }
+
+    @Override
+    public int increment(String key) {
+        localAttempts.increment(key);
+        pendingIncrements.merge(key, 1, Integer::sum);
+        return getAttempts(key);
+    }
+
+    @Override
+    public int getAttempts(String key) {
+        int pending = pendingIncrements.getOrDefault(key, 0);
+        Integer shared = sharedAttempts(key);
+        if (shared == null) {
+            return localAttempts.getAttempts(key);
+        }
+        return shared + pending;
+    }
+
+    @Override
+    public void reset(String key) {
+        localAttempts.reset(key);
+        pendingIncrements.remove(key);
+        pendingResets.add(key);
+        sharedAttempts.put(key, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-attempts.flush-interval-ms:500}")
+    public void flush() {
+        flushResets();
+        flushIncrements();
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-attempts.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        localAttempts.purgeExpired();
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, oldestBucket());
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void flushResets() {
+        if (pendingResets.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (String key : new ArrayList<>(pendingResets)) {
+            if (pendingResets.remove(key)) {
+                batchArgs.add(new Object[] { key });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(DELETE_ATTEMPTS_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to reset {} login attempt counters: {}", batchArgs.size(), e.getMessage());
+            for (Object[] args : batchArgs) {
+                pendingResets.add((String) args[0]);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending deltas while they still count locally, then moves each one into the cached shared
+     * count before taking it off the pending ones. {@link #getAttempts(String)} reads in the opposite order, so
+     * a concurrent read may count a flushed attempt twice for a moment but never misses it. Deltas that fail to
+     * write stay pending for the next flush.
+     */
+    private void flushIncrements() {
+        if (pendingIncrements.isEmpty()) {
+            return;
+        }
+        long bucket = currentBucket();
+        List<Object[]> batchArgs = new ArrayList<>();
+        pendingIncrements.forEach((key, delta) -> batchArgs.add(new Object[] { key, bucket, delta }));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_ATTEMPTS_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to write {} login attempt counters: {}", batchArgs.size(), e.getMessage());
+            return;
+        }
+        for (Object[] args : batchArgs) {
+            String key = (String) args[0];
+            int delta = (Integer) args[2];
+            if (!pendingResets.contains(key)) {
+                sharedAttempts.asMap().computeIfPresent(key, (k, attempts) -> attempts + delta);
+            }
+            pendingIncrements.computeIfPresent(key, (k, pending) -> pending > delta ? pending - delta : null);
+        }
+    }
+
+    /**
+     * Reads the shared count outside the cache, since Guava would run the query under a monitor and pin a
+     * virtual request thread; a reset that lands meanwhile wins over the value read. Returns {@code null} when
+     * the database cannot be read.
+     */
+    private Integer sharedAttempts(String key) {
+        Integer cached = sharedAttempts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        int attempts;
+        try {
+            Integer shared = jdbcTemplate.queryForObject(SELECT_ATTEMPTS_SQL, Integer.class, key, oldestBucket());
+            attempts = shared == null ? 0 : shared;
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to read login attempts of {}, using the local count: {}", key, e.getMessage());
+            return null;
+        }
+        cached = sharedAttempts.asMap().putIfAbsent(key, attempts);
+        return cached != null ? cached : attempts;
+    }
+
+    private long oldestBucket() {
+        return currentBucket() - buckets + 1;
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+}
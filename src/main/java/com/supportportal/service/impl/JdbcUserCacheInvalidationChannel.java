@@ -0,0 +1,86 @@
+package com.supportportal.service.impl;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.supportportal.service.UserCacheInvalidationChannel;
+
+/**
+ * Channel through the {@code user_cache_invalidation} table. An invalidation is inserted in the transaction
+ * that changes the user, so other nodes see it exactly when they can see the change, and never for a change
+ * that was rolled back. Every node polls for rows created since its previous poll, less
+ * {@code user.cache.invalidation.grace-ms} to cover transactions that committed after inserting; evicting a
+ * user twice is harmless. Rows older than {@code user.cache.invalidation.retention-ms} are purged.
+ */
+@Service
+@ConditionalOnProperty(name = "user.cache.invalidation.channel", havingValue = "jdbc")
+public class JdbcUserCacheInvalidationChannel implements UserCacheInvalidationChannel {
+
+    private static final String INSERT_INVALIDATION_SQL =
+            "INSERT INTO user_cache_invalidation (user_id, created_at) VALUES (?, CURRENT_TIMESTAMP)";
+    private static final String SELECT_NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+    private static final String SELECT_INVALIDATIONS_SQL =
+            "SELECT DISTINCT user_id FROM user_cache_invalidation WHERE created_at >= ?";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM user_cache_invalidation WHERE created_at < ?";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long graceMillis;
+    private final long retentionMillis;
+    private volatile Timestamp lastPoll;
+
+    public JdbcUserCacheInvalidationChannel(JdbcTemplate jdbcTemplate,
+                                            @Value("${user.cache.invalidation.grace-ms:10000}") long graceMillis,
+                                            @Value("${user.cache.invalidation.retention-ms:3600000}") long retentionMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.graceMillis = graceMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public void publish(long userId) {
+        jdbcTemplate.update(INSERT_INVALIDATION_SQL, userId);
+    }
+
+    @Override
+    public void subscribe(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${user.cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        Timestamp now = jdbcTemplate.queryForObject(SELECT_NOW_SQL, Timestamp.class);
+        Timestamp since = lastPoll;
+        lastPoll = now;
+        if (since == null) {
+            return;
+        }
+        List<Long> userIds = jdbcTemplate.queryForList(SELECT_INVALIDATIONS_SQL, Long.class,
+                new Timestamp(since.getTime() - graceMillis));
+        for (Long userId : userIds) {
+            for (LongConsumer listener : listeners) {
+                listener.accept(userId);
+            }
+        }
+        if (!userIds.isEmpty()) {
+            LOGGER.debug("Evicted {} users changed on other nodes", userIds.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user.cache.invalidation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Timestamp now = jdbcTemplate.queryForObject(SELECT_NOW_SQL, Timestamp.class);
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, new Timestamp(now.getTime() - retentionMillis));
+    }
+}
@@ -0,0 +1,90 @@
+package com.supportportal.service.impl;
+
+import static com.supportportal.constant.FileConstant.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.supportportal.domain.StoredImage;
+import com.supportportal.service.ImageStore;
+
+/**
+ * Keeps images under {@code image.store.folder}, sharded by the first two pairs of key characters as
+ * {@code ab/cd/abcd....jpg} so no directory grows past a few thousand entries. Files are streamed to a
+ * temporary file in their final directory and moved into place, so a reader never sees a partial image and
+ * the move never crosses a file system.
+ */
+@Service
+@ConditionalOnProperty(name = "image.store.type", havingValue = "local", matchIfMissing = true)
+public class LocalImageStore implements ImageStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-z-]{4,128}");
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path folder;
+
+    public LocalImageStore(@Value("${image.store.folder:${user.home}/supportportal/image/}") String folder) {
+        this.folder = Paths.get(folder).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(path(key));
+    }
+
+    @Override
+    public void put(String key, ContentWriter content) throws IOException {
+        Path path = path(key);
+        if (Files.isRegularFile(path)) {
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        Path temporary = Files.createTempFile(path.getParent(), key, TEMPORARY_SUFFIX);
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                content.writeTo(outputStream);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public StoredImage find(String key) throws IOException {
+        Path path = path(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new StoredImage(path, attributes.size(), attributes.lastModifiedTime().toMillis(), key, null);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    private Path path(String key) {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        return folder.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key + DOT + JPG_EXTENSION);
+    }
+}
@@ -0,0 +1,220 @@
+package com.supportportal.service.impl;
+
+import static com.supportportal.constant.FileConstant.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.supportportal.domain.StoredImage;
+import com.supportportal.service.ImageStore;
+
+/**
+ * Keeps images in a bucket of any S3-compatible object store, addressed path-style as
+ * {@code {endpoint}/{bucket}/{prefix}{key}.jpg} so it works the same against AWS, MinIO or a local stand-in.
+ * Requests are signed with AWS Signature Version 4 and bounded by {@code image.store.s3.connect-timeout}
+ * and {@code image.store.s3.request-timeout}. Objects are written with an immutable Cache-Control, so a CDN
+ * in front of the bucket can serve them directly.
+ */
+@Service
+@ConditionalOnProperty(name = "image.store.type", havingValue = "s3")
+public class S3ImageStore implements ImageStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-z-]{1,128}");
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String TERMINATOR = "aws4_request";
+    private static final String SIGNED_HEADERS = "host;x-amz-content-sha256;x-amz-date";
+    private static final String CONTENT_SHA256_HEADER = "x-amz-content-sha256";
+    private static final String DATE_HEADER = "x-amz-date";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String EMPTY_PAYLOAD_SHA256 = Hashing.sha256().hashBytes(new byte[0]).toString();
+
+    private final HttpClient httpClient;
+    private final String endpoint;
+    private final String bucket;
+    private final String prefix;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final Duration requestTimeout;
+
+    public S3ImageStore(@Value("${image.store.s3.endpoint}") String endpoint,
+                        @Value("${image.store.s3.bucket}") String bucket,
+                        @Value("${image.store.s3.prefix:profile-images/}") String prefix,
+                        @Value("${image.store.s3.region:us-east-1}") String region,
+                        @Value("${image.store.s3.access-key}") String accessKey,
+                        @Value("${image.store.s3.secret-key}") String secretKey,
+                        @Value("${image.store.s3.connect-timeout:2s}") Duration connectTimeout,
+                        @Value("${image.store.s3.request-timeout:10s}") Duration requestTimeout) {
+        this.endpoint = endpoint.endsWith(FORWARD_SLASH) ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpResponse<Void> response = send(request(key, "HEAD").build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expectSuccess(response, "HEAD", key);
+        return true;
+    }
+
+    /**
+     * Spools the content to a temporary file first, since a signed PUT needs its length and hash up front.
+     */
+    @Override
+    public void put(String key, ContentWriter content) throws IOException {
+        Path temporary = Files.createTempFile(key, TEMPORARY_SUFFIX);
+        try {
+            HashingOutputStream hashingOutputStream;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                hashingOutputStream = new HashingOutputStream(Hashing.sha256(), outputStream);
+                content.writeTo(hashingOutputStream);
+            }
+            HttpRequest request = request(key, "PUT", HttpRequest.BodyPublishers.ofFile(temporary),
+                    hashingOutputStream.hash().toString())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.IMAGE_JPEG_VALUE)
+                    .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                    .build();
+            expectSuccess(send(request, HttpResponse.BodyHandlers.discarding()), "PUT", key);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Answers from a HEAD request and leaves the content where it is: each {@link StoredImage#getSource()} stream
+     * is a GET whose body is read straight off the connection, so large images reach the client without being
+     * held in memory and conditional requests never download them at all.
+     */
+    @Override
+    public StoredImage find(String key) throws IOException {
+        HttpResponse<Void> response = send(request(key, "HEAD").build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        expectSuccess(response, "HEAD", key);
+        long contentLength = response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH)
+                .orElseThrow(() -> new IOException("Image store sent no length for " + key));
+        long lastModified = response.headers().firstValue(HttpHeaders.LAST_MODIFIED)
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        return new StoredImage(null, contentLength, lastModified, key, null, () -> open(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<Void> response = send(request(key, "DELETE").build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 404) {
+            expectSuccess(response, "DELETE", key);
+        }
+    }
+
+    private InputStream open(String key) throws IOException {
+        HttpResponse<InputStream> response = send(request(key, "GET").build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            if (response.statusCode() == 404) {
+                throw new FileNotFoundException("Image " + key + " is no longer in the image store");
+            }
+            expectSuccess(response, "GET", key);
+        }
+        return response.body();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+        try {
+            return httpClient.send(request, bodyHandler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling the image store");
+        }
+    }
+
+    private HttpRequest.Builder request(String key, String method) {
+        return request(key, method, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_SHA256);
+    }
+
+    private HttpRequest.Builder request(String key, String method, HttpRequest.BodyPublisher body,
+            String payloadHash) {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        URI uri = URI.create(endpoint + FORWARD_SLASH + bucket + FORWARD_SLASH + prefix + key + DOT + JPG_EXTENSION);
+        ZonedDateTime now = Instant.now().atZone(ZoneOffset.UTC);
+        String dateTime = DATE_TIME.format(now);
+        String scope = DATE.format(now) + FORWARD_SLASH + region + FORWARD_SLASH + SERVICE + FORWARD_SLASH + TERMINATOR;
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String canonicalRequest = method + "\n" + uri.getRawPath() + "\n\n"
+                + "host:" + host + "\n"
+                + CONTENT_SHA256_HEADER + ":" + payloadHash + "\n"
+                + DATE_HEADER + ":" + dateTime + "\n\n"
+                + SIGNED_HEADERS + "\n" + payloadHash;
+        String stringToSign = ALGORITHM + "\n" + dateTime + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+        String signature = Hashing.hmacSha256(signingKey(DATE.format(now)))
+                .hashString(stringToSign, StandardCharsets.UTF_8).toString();
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .method(method, body)
+                .header(CONTENT_SHA256_HEADER, payloadHash)
+                .header(DATE_HEADER, dateTime)
+                .header(HttpHeaders.AUTHORIZATION, ALGORITHM + " Credential=" + accessKey + FORWARD_SLASH + scope
+                        + ", SignedHeaders=" + SIGNED_HEADERS + ", Signature=" + signature);
+    }
+
+    private byte[] signingKey(String date) {
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        return hmac(key, TERMINATOR);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        return Hashing.hmacSha256(key).hashString(data, StandardCharsets.UTF_8).asBytes();
+    }
+
+    private static String sha256Hex(String data) {
+        return Hashing.sha256().hashString(data, StandardCharsets.UTF_8).toString();
+    }
+
+    private static void expectSuccess(HttpResponse<?> response, String method, String key) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Image store answered " + response.statusCode() + " to " + method + " " + key);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.supportportal.service.impl;
 import com.supportportal.constant.FileConstant;
 import com.supportportal.domain.User;
 import com.supportportal.domain.UserPrincipal;
+import com.supportportal.domain.UserSummary;
 import com.supportportal.enumeration.Role;
 import com.supportportal.exception.domain.EmailExistException;
 import com.supportportal.exception.domain.EmailNotFoundException;
@@ -11,32 +12,43 @@ import com.supportportal.exception.domain.UsernameExistException;
 import com.supportportal.repository.UserRepository;
 import com.supportportal.service.EmailService;
 import com.supportportal.service.LoginAttemptService;
+import com.supportportal.service.ProfileImageService;
+import com.supportportal.service.UserCache;
 import com.supportportal.service.UserService;
-import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import javax.mail.MessagingException;
 import static com.supportportal.constant.FileConstant.*;
 import static com.supportportal.constant.UserImplConstant.*;
 import static com.supportportal.enumeration.Role.ROLE_USER;
@@ -44,25 +56,32 @@ import static com.supportportal.enumeration.Role.ROLE_USER;
 
 @Service
 @Transactional
-public class UserServiceImpl implements UserService, UserDetailsService {
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService {
 
 	private static final String USERNAME_ALREADY_EXISTS = "Username already exists";
 	private static final String Email_ALREADY_EXISTS = "Email already exists";
 	private static final String NO_USER_FOUNT_BY_USERNAME = "/user/image/profile/temp";
 	private static final String DEFAULT_USER_IMAGE_PATH = "/user/image/profile/temp";
 	private static final String EMPTY = "";
+	private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "userId", "firstName", "lastName", "username",
+			"email", "role", "isActive", "isNotLocked");
 	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
 	private LoginAttemptService loginAttemptService;
 	private EmailService emailService;
+	private final ProfileImageService profileImageService;
+	private final UserCache userCache;
 
 	public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-			LoginAttemptService loginAttemptService, EmailService emailService) {
+			LoginAttemptService loginAttemptService, EmailService emailService, ProfileImageService profileImageService,
+			UserCache userCache) {
 		this.userRepository = userRepository;
+		this.userCache = userCache;
 		this.passwordEncoder = passwordEncoder;
 		this.loginAttemptService = loginAttemptService;
 		this.emailService = emailService;
+		this.profileImageService = profileImageService;
 	}
 
 	@Override
@@ -72,15 +91,24 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 			LOGGER.error(NO_USER_FOUNT_BY_USERNAME + username);
 			throw new UsernameNotFoundException(NO_USER_FOUNT_BY_USERNAME + username);
 		}
+		boolean wasNotLocked = user.isNotLocked();
 		validateLoginAttempt(user);
-		if (user.getLastLoginDate() != null) {
-			user.setLastLoginDateDisplay(user.getLastLoginDate());
-		} else {
-			user.setLastLoginDateDisplay(new Date());
+		if (wasNotLocked != user.isNotLocked()) {
+			userRepository.save(user);
+			userCache.evict(user.getId());
 		}
-		user.setLastLoginDate(new Date());
+		return new UserPrincipal(user);
+	}
 
-		userRepository.save(user);
+	@Override
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		User user = userDetails instanceof UserPrincipal
+				? ((UserPrincipal) userDetails).getUser()
+				: userRepository.findUserByUsername(userDetails.getUsername());
+		userRepository.updatePassword(user.getId(), newPassword);
+		userCache.evict(user.getId());
+		user.setPassword(newPassword);
+		LOGGER.info("Rehashed password of {} with the configured BCrypt strength", user.getUsername());
 		return new UserPrincipal(user);
 	}
 
@@ -98,6 +126,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 	}
 
 	@Override
+	@Transactional(rollbackFor = { UsernameExistException.class, EmailExistException.class })
 	public User register(String firstName, String lastName, String username, String email)
 			throws UserNotFoundException, UsernameExistException, EmailExistException {
 
@@ -115,24 +144,19 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 		user.setActive(true);
 		user.setNotLocked(true);
 		user.setRole(ROLE_USER.name());
-		user.setAuthorities(ROLE_USER.getAuthorities());
 		user.setProfileImageUrl(getTemporaryProfileImageUrl(username));
-		userRepository.save(user);
+		saveUnique(user);
 		LOGGER.info("New user password: {}", password);
-		try {
-			emailService.sendNewPasswordEmail(firstName, password, email);
-		} catch (MessagingException e) {
-			LOGGER.error("Failed to send new password email: {}", e.getMessage());
-			e.printStackTrace();
-		}
+		emailService.sendNewPasswordEmail(firstName, password, email);
 
 		return user;
 	}
 
 	@Override
+	@Transactional(rollbackFor = { UsernameExistException.class, EmailExistException.class, IOException.class })
 	public User addNewUse(String firstName, String lastName, String username, String email, String role,
 			boolean isNoneLocked, boolean isActive, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException {
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException {
 
 		validateNewUsernameAndEmail(EMPTY, username, email);
 
@@ -148,18 +172,18 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 		user.setActive(isActive);
 		user.setNotLocked(isNoneLocked);
 		user.setRole(getRoleEnumName(role).name());
-		user.setAuthorities(getRoleEnumName(role).getAuthorities());
 
-		userRepository.save(user);
+		saveUnique(user);
 
 		saveProfileImage(user, profileImage);
 		return user;
 	}
 
 	@Override
+	@Transactional(rollbackFor = { UsernameExistException.class, EmailExistException.class, IOException.class })
 	public User UpdateUser(String currentUsername, String newFirstName, String newLastName, String newUsername,
 			String newEmail, String role, boolean isNoneLocked, boolean isActive, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException {
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException {
 		User currentUser = validateNewUsernameAndEmail(currentUsername, newUsername, newEmail);
 		currentUser.setFirstName(newFirstName);
 		currentUser.setLastName(newLastName);
@@ -169,14 +193,14 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 		currentUser.setActive(isActive);
 		currentUser.setNotLocked(isNoneLocked);
 		currentUser.setRole(getRoleEnumName(role).name());
-		currentUser.setAuthorities(getRoleEnumName(role).getAuthorities());
-		userRepository.save(currentUser);
+		saveUnique(currentUser);
+		userCache.evict(currentUser.getId());
 		saveProfileImage(currentUser, profileImage);
 		return currentUser;
 	}
 
 	@Override
-	public void resetPassword(String email) throws MessagingException, EmailNotFoundException {
+	public void resetPassword(String email) throws EmailNotFoundException {
 		User user = userRepository.findUserByEmail(email);
 		if (user == null) {
 			throw new EmailNotFoundException(NO_USER_FOUND_BY_EMAIL + email);
@@ -184,66 +208,119 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 		String password = generatePassword();
 		user.setPassword(encodedPassword(password));
 		userRepository.save(user);
+		userCache.evict(user.getId());
 		emailService.sendNewPasswordEmail(user.getFirstName(), password, user.getEmail());
 	}
 
 	@Override
 	public User updateProfileImage(String username, MultipartFile profileImage)
-			throws UserNotFoundException, UsernameExistException, EmailExistException {
+			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException {
 		User user = validateNewUsernameAndEmail(username, null, null);
 		saveProfileImage(user, profileImage);
 		return user;
 	}
 
 	@Override
-	public List<User> getUsers() {
-		return userRepository.findAll();
+	@Transactional(readOnly = true)
+	public Slice<UserSummary> getUsers(Pageable pageable) {
+		for (Sort.Order order : pageable.getSort()) {
+			if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+				throw new PropertyReferenceException(order.getProperty(), TypeInformation.of(UserSummary.class),
+						Collections.emptyList());
+			}
+		}
+		return userRepository.findSummariesBy(pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<UserSummary> getUsersAfter(Long lastId, int size) {
+		return userRepository.findSummariesAfter(lastId, Limit.of(size));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamUsers(Consumer<UserSummary> consumer) {
+		try (Stream<UserSummary> users = userRepository.streamSummariesOrderById()) {
+			users.forEach(consumer);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public UserSummary findUserSummaryByUsername(String username) {
+		return userCache.findSummaryByUsername(username);
 	}
 
 	@Override
 	public User findUserByUsername(String username) {
-		return userRepository.findUserByUsername(username);
+		return userCache.findByUsername(username);
 	}
 
 	@Override
 	public User findUserByEmail(String email) {
-		return userRepository.findUserByEmail(email);
+		return userCache.findByEmail(email);
 	}
 
 	@Override
 	public void deleteUser(String username) throws IOException {
 
 		User user = userRepository.findUserByUsername(username);
-		Path userFolder = Paths.get(USER_FOLDER + user.getUsername()).toAbsolutePath().normalize();
-		FileUtils.deleteDirectory(new File(userFolder.toString()));
+		if (user == null) {
+			return;
+		}
 		userRepository.deleteById(user.getId());
+		userCache.evict(user.getId());
+		releaseProfileImage(user.getProfileImageId());
 
 	}
 
-	private void saveProfileImage(User user, MultipartFile profileImage) {
+	private void saveProfileImage(User user, MultipartFile profileImage) throws IOException {
 		if (profileImage != null) {
-			try {
-				Path userFolder = Paths.get(FileConstant.USER_FOLDER + user.getUsername()).toAbsolutePath().normalize();
-				if (!Files.exists(userFolder)) {
-					Files.createDirectories(userFolder);
-					LOGGER.info(FileConstant.DIRECTORY_CREATED + userFolder);
-				}
-
-				Path imagePath = userFolder.resolve(user.getUsername() + "." + FileConstant.JPG_EXTENSION);
-				Files.deleteIfExists(imagePath);
-
-				Files.copy(profileImage.getInputStream(), imagePath, StandardCopyOption.REPLACE_EXISTING);
-				String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath().path("/user/image/")
-						.path(user.getUsername()).path("/").path(user.getUsername() + ".jpg").toUriString();
+			String previousImageId = user.getProfileImageId();
+			String imageId = profileImageService.saveProfileImage(profileImage);
+			String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath().path(USER_IMAGE_PATH)
+					.path(imageId + DOT + JPG_EXTENSION).toUriString();
+
+			user.setProfileImageId(imageId);
+			user.setProfileImageUrl(imageUrl);
+			userRepository.save(user);
+			userCache.evict(user.getId());
+			if (!imageId.equals(previousImageId)) {
+				releaseProfileImage(previousImageId);
+			}
 
-				user.setProfileImageUrl(imageUrl);
-				userRepository.save(user);
+			LOGGER.info(FileConstant.FILE_SAVED_IN_FILE_SYSTEM + profileImage.getOriginalFilename());
+		}
+	}
 
-				LOGGER.info(FileConstant.FILE_SAVED_IN_FILE_SYSTEM + profileImage.getOriginalFilename());
-			} catch (IOException e) {
-				LOGGER.error("Error saving profile image: {}", e.getMessage());
+	/**
+	 * Deletes an image once the current transaction has committed, unless another user still refers to it.
+	 * Identical uploads share one image, so it can outlive the user that uploaded it first.
+	 */
+	private void releaseProfileImage(String imageId) {
+		if (imageId == null) {
+			return;
+		}
+		Runnable release = () -> {
+			try {
+				if (!userRepository.existsByProfileImageId(imageId)) {
+					profileImageService.deleteProfileImage(imageId);
+				}
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("Failed to delete profile image {}: {}", imageId, e.getMessage());
 			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			release.run();
+			return;
 		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				release.run();
+			}
+		});
 	}
 
 	private String setProfileImageUrl(String username) {
@@ -275,33 +352,61 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
 	private User validateNewUsernameAndEmail(String currentUsername, String newUsername, String newEmail)
 			throws UserNotFoundException, UsernameExistException, EmailExistException {
+		User currentUser = null;
 		if (StringUtils.isNotBlank(currentUsername)) {
-			User currentUser = findUserByUsername(currentUsername);
+			currentUser = userRepository.findUserByUsername(currentUsername);
 			if (currentUser == null) {
 				throw new UserNotFoundException("No user found by username: " + currentUsername);
 			}
+		}
+		if (newUsername == null && newEmail == null) {
+			return currentUser;
+		}
 
-			User userByUsername = findUserByUsername(newUsername);
-			if (userByUsername != null && !currentUser.getId().equals(userByUsername.getId())) {
+		List<UserSummary> collisions = userRepository.findUsernameOrEmailCollisions(newUsername, newEmail,
+				currentUser != null ? currentUser.getId() : null);
+		for (UserSummary collision : collisions) {
+			if (StringUtils.equalsIgnoreCase(collision.getUsername(), newUsername)) {
 				throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
 			}
+		}
+		if (!collisions.isEmpty()) {
+			throw new EmailExistException(Email_ALREADY_EXISTS);
+		}
+		return currentUser;
+	}
 
-			User userByEmail = findUserByEmail(newEmail);
-			if (userByEmail != null && !currentUser.getId().equals(userByEmail.getId())) {
-				throw new EmailExistException(Email_ALREADY_EXISTS);
-			}
-
-			return currentUser;
-		} else {
-			if (findUserByUsername(newUsername) != null) {
+	private User saveUnique(User user) throws UsernameExistException, EmailExistException {
+		try {
+			return userRepository.saveAndFlush(user);
+		} catch (DataIntegrityViolationException e) {
+			String constraint = violatedConstraint(e);
+			if (constraint.contains(UNIQUE_USERNAME)) {
 				throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
 			}
-
-			if (findUserByEmail(newEmail) != null) {
+			if (constraint.contains(UNIQUE_EMAIL)) {
 				throw new EmailExistException(Email_ALREADY_EXISTS);
 			}
+			if (constraint.contains(UNIQUE_USER_ID)) {
+				throw new IllegalStateException("Generated user id " + user.getUserId() + " is already taken", e);
+			}
+			throw e;
+		}
+	}
 
-			return null;
+	/**
+	 * Name of the unique constraint behind the violation, as reported by Hibernate, or the driver's message when
+	 * Hibernate could not extract it. Drivers decorate the name, e.g. H2 appends the index, so callers match on
+	 * a substring.
+	 */
+	private static String violatedConstraint(DataIntegrityViolationException e) {
+		String constraint = null;
+		for (Throwable cause = e; cause != null && constraint == null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				constraint = ((ConstraintViolationException) cause).getConstraintName();
+			}
 		}
+		return String.valueOf(constraint != null ? constraint : e.getMostSpecificCause().getMessage())
+				.toLowerCase(Locale.ROOT);
 	}
 }
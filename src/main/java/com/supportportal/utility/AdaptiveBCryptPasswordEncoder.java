@@ -0,0 +1,72 @@
+package com.supportportal.utility;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever a stored hash was made with a different cost than the
+ * configured one, so lowering the cost takes effect on the next login just like raising it does.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+	private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+	private static final String CALIBRATION_PASSWORD = "calibration-password";
+	public static final int MINIMUM_STRENGTH = 4;
+	public static final int MAXIMUM_STRENGTH = 31;
+
+	private final int strength;
+
+	public AdaptiveBCryptPasswordEncoder(int strength) {
+		super(strength);
+		this.strength = strength;
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.isEmpty()) {
+			return false;
+		}
+		Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+		if (!matcher.matches()) {
+			return false;
+		}
+		return Integer.parseInt(matcher.group(2)) != strength;
+	}
+
+	/**
+	 * Returns the highest cost between {@code minimumStrength} and {@code maximumStrength} whose hash time on
+	 * this machine stays within {@code targetMillis}. Each extra cost step doubles the work, so costs above
+	 * the last measured one are estimated instead of hashed.
+	 */
+	public static int calibrate(long targetMillis, int minimumStrength, int maximumStrength) {
+		int strength = Math.max(minimumStrength, MINIMUM_STRENGTH);
+		int upperBound = Math.min(maximumStrength, MAXIMUM_STRENGTH);
+		BCryptPasswordEncoder warmUp = new BCryptPasswordEncoder(strength);
+		warmUp.encode(CALIBRATION_PASSWORD);
+		while (strength < upperBound) {
+			long elapsedNanos = measure(new BCryptPasswordEncoder(strength));
+			long estimatedNextMillis = (elapsedNanos * 2) / 1_000_000;
+			if (estimatedNextMillis > targetMillis) {
+				break;
+			}
+			strength++;
+		}
+		return strength;
+	}
+
+	private static long measure(BCryptPasswordEncoder encoder) {
+		long fastest = Long.MAX_VALUE;
+		for (int i = 0; i < 2; i++) {
+			long start = System.nanoTime();
+			encoder.encode(CALIBRATION_PASSWORD);
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		return fastest;
+	}
+}
@@ -0,0 +1,99 @@
+package com.supportportal.utility;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.supportportal.exception.domain.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size worker pool with a bounded queue. When the queue is full new work is refused with a
+ * {@link ServiceBusyException} instead of piling up on the caller's thread.
+ * <p>
+ * Workers are platform threads even when requests run on virtual threads: the pools hold CPU-bound work, or
+ * SMTP sessions whose monitors would pin a carrier, and their bound is what limits an otherwise unbounded
+ * number of virtual request threads.
+ */
+public class BoundedExecutor implements AutoCloseable {
+
+    private static final String QUEUE_DEPTH_METRIC = "bounded.executor.queue.depth";
+    private static final String ACTIVE_METRIC = "bounded.executor.active";
+    private static final String WAIT_METRIC = "bounded.executor.wait";
+    private static final String REJECTED_METRIC = "bounded.executor.rejected";
+
+    private final String name;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final MeterRegistry meterRegistry;
+
+    public BoundedExecutor(String name, int threads, int queueCapacity, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimer = Timer.builder(WAIT_METRIC).tag("name", name).register(meterRegistry);
+        Gauge.builder(QUEUE_DEPTH_METRIC, executor, pool -> pool.getQueue().size()).tag("name", name).register(meterRegistry);
+        Gauge.builder(ACTIVE_METRIC, executor, ThreadPoolExecutor::getActiveCount).tag("name", name).register(meterRegistry);
+    }
+
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter(REJECTED_METRIC, "name", name).increment();
+            throw new ServiceBusyException(name + " is at capacity, please retry shortly", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Runs the task on the pool and waits for its result on the calling thread.
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future = submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
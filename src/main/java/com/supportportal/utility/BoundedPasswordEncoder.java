@@ -0,0 +1,53 @@
+package com.supportportal.utility;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs the hashing work of the delegate on a dedicated {@link BoundedExecutor}, so a burst of logins and
+ * registrations is limited to one hash per core and cannot occupy every request thread. The hash itself,
+ * without the wait for a pool thread, is timed as {@code password.hashing} tagged with the operation.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final String HASHING_METRIC = "password.hashing";
+    private static final String HASH_SPAN = "hash";
+
+    private final PasswordEncoder delegate;
+    private final BoundedExecutor boundedExecutor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, BoundedExecutor boundedExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.boundedExecutor = boundedExecutor;
+        this.encodeTimer = Timer.builder(HASHING_METRIC).tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder(HASHING_METRIC).tag("operation", "matches").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        try (RequestTimings.Span span = RequestTimings.span(HASH_SPAN, "encode")) {
+            return boundedExecutor.call(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try (RequestTimings.Span span = RequestTimings.span(HASH_SPAN, "matches")) {
+            return boundedExecutor.call(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        boundedExecutor.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.supportportal.utility;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Encrypts a column with AES-GCM under {@code mail.outbox.encryption-key}, a Base64 AES key, so secrets such as
+ * generated passwords never reach the database in plaintext. Values are stored as {@code v1:} followed by the
+ * Base64 of the IV and ciphertext. Values without that prefix are read as they are, which keeps rows written
+ * before encryption readable. A value that cannot be decrypted, e.g. after the key changed, reads as
+ * {@code null}.
+ * <p>
+ * Without a configured key a random one is generated at startup, so encrypted values only survive as long as
+ * the process.
+ */
+@Component
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKey key;
+
+    public EncryptedStringConverter(@Value("${mail.outbox.encryption-key:}") String encodedKey) {
+        if (StringUtils.isBlank(encodedKey)) {
+            byte[] generated = new byte[32];
+            random.nextBytes(generated);
+            this.key = new SecretKeySpec(generated, "AES");
+            LOGGER.warn("mail.outbox.encryption-key is not set, queued email will not survive a restart");
+        } else {
+            this.key = new SecretKeySpec(Base64.getDecoder().decode(encodedKey), "AES");
+        }
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(attribute.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length)
+                    .put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt column value", e);
+        }
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(PREFIX)) {
+            return column;
+        }
+        try {
+            byte[] stored = Base64.getDecoder().decode(column.substring(PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, stored, 0, IV_LENGTH));
+            byte[] plaintext = cipher.doFinal(stored, IV_LENGTH, stored.length - IV_LENGTH);
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            LOGGER.warn("Failed to decrypt column value: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.supportportal.utility;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.supportportal.domain.VerifiedToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens that already passed {@link JWTTokenProvider#verifyToken(String)} so repeat requests
+ * carrying the same token skip the HMAC check and the authority list construction. Entries are keyed by
+ * the SHA-256 of the raw token and are never served past the token's own expiry. Every check that reaches
+ * the provider is timed as {@code jwt.verification}, tagged with whether the token was valid.
+ */
+@Component
+public class JWTTokenCache {
+
+    private static final String CACHE_NAME = "jwt.token.cache";
+    private static final String HIT_RATIO_METRIC = CACHE_NAME + ".hit.ratio";
+    private static final String VERIFICATION_METRIC = "jwt.verification";
+    private static final String JWT_SPAN = "jwt";
+
+    private final JWTTokenProvider jwtTokenProvider;
+    private final boolean enabled;
+    private final Cache<HashCode, VerifiedToken> verifiedTokenCache;
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    public JWTTokenCache(JWTTokenProvider jwtTokenProvider,
+                         @Value("${jwt.cache.enabled:false}") boolean enabled,
+                         @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${jwt.cache.maximum-ttl-minutes:30}") long maximumTtlMinutes,
+                         MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.enabled = enabled;
+        this.verifiedTokenCache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maximumTtlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.validTokenTimer = Timer.builder(VERIFICATION_METRIC).tag("result", "valid").register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder(VERIFICATION_METRIC).tag("result", "invalid").register(meterRegistry);
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokenCache, CACHE_NAME);
+        Gauge.builder(HIT_RATIO_METRIC, verifiedTokenCache, cache -> cache.stats().hitRate()).register(meterRegistry);
+    }
+
+    public VerifiedToken verifyToken(String token) {
+        try (RequestTimings.Span span = RequestTimings.span(JWT_SPAN, "verify")) {
+            return verifyCached(token);
+        }
+    }
+
+    private VerifiedToken verifyCached(String token) {
+        if (!enabled) {
+            return verify(token);
+        }
+        HashCode key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        VerifiedToken verifiedToken = verifiedTokenCache.getIfPresent(key);
+        if (verifiedToken != null) {
+            if (!verifiedToken.isExpired()) {
+                return verifiedToken;
+            }
+            verifiedTokenCache.invalidate(key);
+        }
+        verifiedToken = verify(token);
+        verifiedTokenCache.put(key, verifiedToken);
+        return verifiedToken;
+    }
+
+    private VerifiedToken verify(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            VerifiedToken verifiedToken = jwtTokenProvider.verifyToken(token);
+            sample.stop(validTokenTimer);
+            return verifiedToken;
+        } catch (JWTVerificationException exception) {
+            sample.stop(invalidTokenTimer);
+            throw exception;
+        }
+    }
+}
@@ -3,47 +3,65 @@ package com.supportportal.utility;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.supportportal.constant.SecurityConstant;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.supportportal.domain.UserPrincipal;
+import com.supportportal.domain.VerifiedToken;
+import com.supportportal.enumeration.Role;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.ArrayList;
 import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
 import static com.supportportal.constant.SecurityConstant.*;
-import static java.util.Arrays.stream;
 
 @Component
 public class JWTTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
 
-    public String generateJwtToken(UserPrincipal userPrincipal) {
-        String[] claims = getClaimsFromUser(userPrincipal);
-        return JWT.create()
+    public JWTTokenProvider(@Value("${jwt.secret}") String secret) {
+        this.algorithm = HMAC512(secret.getBytes());
+        this.verifier = JWT.require(algorithm)
                 .withIssuer(GET_ARRAYS_LLC)
-                .withAudience(GET_ARRAYS_ADMINISTRATION)
-                .withIssuedAt(new Date())
-                .withSubject(userPrincipal.getUsername())
-                .withArrayClaim(AUTHORITIES, claims)
-                .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .sign(HMAC512(secret.getBytes()));
+                .build();
     }
 
-    public List<GrantedAuthority> getAuthorities(String token) {
-        String[] claims = getClaimsFromToken(token);
-        return stream(claims).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+    public String generateJwtToken(UserPrincipal userPrincipal) {
+        try (RequestTimings.Span span = RequestTimings.span("jwt", "generate")) {
+            String[] claims = getClaimsFromUser(userPrincipal);
+            return JWT.create()
+                    .withIssuer(GET_ARRAYS_LLC)
+                    .withAudience(GET_ARRAYS_ADMINISTRATION)
+                    .withIssuedAt(new Date())
+                    .withSubject(userPrincipal.getUsername())
+                    .withArrayClaim(AUTHORITIES, claims)
+                    .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                    .sign(algorithm);
+        }
+    }
+
+    /**
+     * Verifies the signature, issuer and expiry of the token exactly once and returns
+     * everything the authorization filter needs from it.
+     *
+     * @throws com.auth0.jwt.exceptions.JWTVerificationException if the token is invalid or expired
+     */
+    public VerifiedToken verifyToken(String token) {
+        DecodedJWT decodedJWT = verifier.verify(token);
+        return new VerifiedToken(decodedJWT.getSubject(), decodedJWT.getExpiresAt(), getAuthorities(decodedJWT));
+    }
+
+    public boolean isTokenValid(VerifiedToken verifiedToken) {
+        return StringUtils.isNotEmpty(verifiedToken.getSubject()) && !verifiedToken.isExpired();
     }
 
     public Authentication getAuthentication(String username, List<GrantedAuthority> authorities, HttpServletRequest request) {
@@ -53,36 +71,16 @@ public class JWTTokenProvider {
         return userPasswordAuthToken;
     }
 
-    public boolean isTokenValid(String username, String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return StringUtils.isNotEmpty(username) && !isTokenExpired(verifier, token);
-    }
-
-    public String getSubject(String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return verifier.verify(token).getSubject();
-    }
-
-    private boolean isTokenExpired(JWTVerifier verifier, String token) {
-        Date expiration = verifier.verify(token).getExpiresAt();
-        return expiration.before(new Date());
-    }
-
-    private String[] getClaimsFromToken(String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return verifier.verify(token).getClaim(AUTHORITIES).asArray(String.class);
-    }
-
-    private JWTVerifier getJWTVerifier() {
-        try {
-            Algorithm algorithm = HMAC512(secret);
-            return JWT.require(algorithm)
-                    .withIssuer(GET_ARRAYS_LLC)
-                    .build();
-        } catch (JWTVerificationException exception) {
-            throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
+    private List<GrantedAuthority> getAuthorities(DecodedJWT decodedJWT) {
+        String[] claims = decodedJWT.getClaim(AUTHORITIES).asArray(String.class);
+        if (claims == null) {
+            return Collections.emptyList();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(claims.length);
+        for (String claim : claims) {
+            authorities.add(Role.grantedAuthority(claim));
         }
-        
+        return Collections.unmodifiableList(authorities);
     }
 
     private String[] getClaimsFromUser(UserPrincipal userPrincipal) {
@@ -0,0 +1,139 @@
+package com.supportportal.utility;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-scoped stopwatch. While a request is being timed, code on its thread records named spans such as
+ * {@code db}, {@code hash}, {@code file}, {@code email} and {@code jwt}, each with a detail naming the call.
+ * Spans are totalled per name for the {@code Server-Timing} header and kept in order, up to a limit, for the
+ * slow-request log. Spans may nest, so their totals can add up to more than the request took.
+ * <p>
+ * Outside a timed request, and on worker threads a request hands work to, {@link #span(String, String)}
+ * returns a shared no-op after one thread-local lookup.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Span NO_SPAN = () -> { };
+    private static final int MAXIMUM_ENTRIES = 64;
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> totals = new LinkedHashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private int droppedEntries;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts timing the current thread's request. Must be paired with {@link #stop()}.
+     */
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Opens a span that is recorded when closed, for use in try-with-resources.
+     */
+    public static Span span(String name, String detail) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return NO_SPAN;
+        }
+        long startNanos = System.nanoTime();
+        return () -> timings.add(name, detail, startNanos, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a span that has already ended, such as one timed by a listener.
+     */
+    public static void record(String name, String detail, long durationNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(name, detail, System.nanoTime() - durationNanos, durationNanos);
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the totals per span name and the time elapsed so far as a {@code Server-Timing} header value,
+     * e.g. {@code db;dur=4.2;desc="3 calls", total;dur=12.8}.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        totals.forEach((name, total) -> header.append(name).append(";dur=").append(millis(total[1]))
+                .append(";desc=\"").append(total[0]).append(total[0] == 1 ? " call" : " calls").append("\", "));
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    /**
+     * Formats the spans in the order they started, each with its offset from the start of the request and its
+     * duration, e.g. {@code db:UserRepository.save@3.1+2.4}.
+     */
+    public String toTimeline() {
+        StringBuilder timeline = new StringBuilder();
+        for (Entry entry : entries) {
+            if (timeline.length() > 0) {
+                timeline.append(' ');
+            }
+            timeline.append(entry.name).append(':').append(entry.detail)
+                    .append('@').append(millis(entry.startNanos - startNanos))
+                    .append('+').append(millis(entry.durationNanos));
+        }
+        if (droppedEntries > 0) {
+            timeline.append(" (").append(droppedEntries).append(" more)");
+        }
+        return timeline.toString();
+    }
+
+    private void add(String name, String detail, long startNanos, long durationNanos) {
+        long[] total = totals.computeIfAbsent(name, key -> new long[2]);
+        total[0]++;
+        total[1] += durationNanos;
+        if (entries.size() < MAXIMUM_ENTRIES) {
+            entries.add(new Entry(name, detail, startNanos, durationNanos));
+        } else {
+            droppedEntries++;
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final String detail;
+        private final long startNanos;
+        private final long durationNanos;
+
+        private Entry(String name, String detail, long startNanos, long durationNanos) {
+            this.name = name;
+            this.detail = detail;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.supportportal.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Servlet filter, ahead of every other filter, that adds up the bytes each request allocates on its request
+ * thread, keyed by method and handler pattern such as {@code GET /user/image/{imageId}.jpg}. Work the request
+ * hands to another thread is not counted.
+ */
+class AllocationRecorder implements Filter {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final AtomicReference<Map<String, LongAdder[]>> allocations =
+			new AtomicReference<>(new ConcurrentHashMap<>());
+
+	FilterRegistrationBean<AllocationRecorder> registration() {
+		FilterRegistrationBean<AllocationRecorder> registration = new FilterRegistrationBean<>(this);
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			if (pattern != null) {
+				String endpoint = ((HttpServletRequest) request).getMethod() + " " + pattern;
+				LongAdder[] allocation = allocations.get().computeIfAbsent(endpoint,
+						key -> new LongAdder[] { new LongAdder(), new LongAdder() });
+				allocation[0].increment();
+				allocation[1].add(THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore);
+			}
+		}
+	}
+
+	/**
+	 * Starts a new measurement and returns the bytes allocated per request of each endpoint since the last one.
+	 */
+	Map<String, Long> reset() {
+		Map<String, Long> bytesPerRequest = new ConcurrentHashMap<>();
+		allocations.getAndSet(new ConcurrentHashMap<>()).forEach((endpoint, allocation) -> {
+			long requests = allocation[0].sum();
+			if (requests > 0) {
+				bytesPerRequest.put(endpoint, allocation[1].sum() / requests);
+			}
+		});
+		return bytesPerRequest;
+	}
+}
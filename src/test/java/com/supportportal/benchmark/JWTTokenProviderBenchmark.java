@@ -0,0 +1,106 @@
+package com.supportportal.benchmark;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.supportportal.constant.SecurityConstant.AUTHORITIES;
+import static com.supportportal.constant.SecurityConstant.GET_ARRAYS_LLC;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+import com.supportportal.domain.VerifiedToken;
+import com.supportportal.enumeration.Role;
+import com.supportportal.utility.JWTTokenCache;
+import com.supportportal.utility.JWTTokenProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares the per-request token handling of {@link com.supportportal.filter.JwtAuthorizationFilter}
+ * before (verifier rebuilt and token verified three times) and after (one cached verifier, one verification),
+ * plus the repeat-request path served from {@link JWTTokenCache} and the token issued on every login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTTokenProviderBenchmark {
+
+	private static final String SECRET = "mySuperJwtSecretKeyForHmac512";
+
+	private JWTTokenProvider jwtTokenProvider;
+	private JWTTokenCache jwtTokenCache;
+	private UserPrincipal userPrincipal;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtTokenProvider = new JWTTokenProvider(SECRET);
+		jwtTokenCache = new JWTTokenCache(jwtTokenProvider, true, 1000, 30, new SimpleMeterRegistry());
+		User user = new User();
+		user.setUsername("benchmark");
+		user.setRole(Role.ROLE_SUPER_ADMIN.name());
+		userPrincipal = new UserPrincipal(user);
+		token = jwtTokenProvider.generateJwtToken(userPrincipal);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtTokenProvider.generateJwtToken(userPrincipal);
+	}
+
+	@Benchmark
+	public void verifyThreeTimesWithFreshVerifier(Blackhole blackhole) {
+		String subject = legacyVerifier().verify(token).getSubject();
+		Date expiresAt = legacyVerifier().verify(token).getExpiresAt();
+		String[] claims = legacyVerifier().verify(token).getClaim(AUTHORITIES).asArray(String.class);
+		List<GrantedAuthority> authorities = Arrays.stream(claims)
+				.map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+		blackhole.consume(subject);
+		blackhole.consume(expiresAt.before(new Date()));
+		blackhole.consume(authorities);
+	}
+
+	@Benchmark
+	public VerifiedToken verifyOnceWithCachedVerifier() {
+		return jwtTokenProvider.verifyToken(token);
+	}
+
+	@Benchmark
+	public VerifiedToken verifyThroughTokenCache() {
+		return jwtTokenCache.verifyToken(token);
+	}
+
+	private JWTVerifier legacyVerifier() {
+		return JWT.require(HMAC512(SECRET)).withIssuer(GET_ARRAYS_LLC).build();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JWTTokenProviderBenchmark.class.getSimpleName()).build()).run();
+	}
+}
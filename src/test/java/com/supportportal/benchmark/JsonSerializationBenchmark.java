@@ -0,0 +1,85 @@
+package com.supportportal.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supportportal.domain.HttpResponse;
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+
+/**
+ * Jackson serialization of the two bodies the API returns most, a {@link User} and an {@link HttpResponse},
+ * with a mapper configured the way Spring Boot configures the application's. The error body is also written
+ * with a mapper created per call, as the JWT entry point and access-denied handler do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	private ObjectMapper objectMapper;
+	private User user;
+	private HttpResponse httpResponse;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		user = new User();
+		user.setId(1L);
+		user.setUserId("4820193746");
+		user.setFirstName("Benchmark");
+		user.setLastName("User");
+		user.setUsername("benchmark");
+		user.setPassword("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
+		user.setEmail("benchmark@example.com");
+		user.setProfileImageUrl("/user/image/profile/benchmark");
+		user.setLastLoginDate(new Date());
+		user.setLastLoginDateDisplay(new Date());
+		user.setJoinDate(new Date());
+		user.setRole(Role.ROLE_SUPER_ADMIN.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		httpResponse = new HttpResponse(HttpStatus.FORBIDDEN.value(), HttpStatus.FORBIDDEN,
+				HttpStatus.FORBIDDEN.getReasonPhrase().toUpperCase(), "YOU NEED TO LOG IN TO ACCESS THIS PAGE");
+	}
+
+	@Benchmark
+	public byte[] serializeUser() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(user);
+	}
+
+	@Benchmark
+	public byte[] serializeHttpResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(httpResponse);
+	}
+
+	@Benchmark
+	public byte[] serializeHttpResponseWithNewMapper() throws JsonProcessingException {
+		return new ObjectMapper().writeValueAsBytes(httpResponse);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JsonSerializationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
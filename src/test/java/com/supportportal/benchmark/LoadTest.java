@@ -0,0 +1,400 @@
+package com.supportportal.benchmark;
+
+import static com.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static com.supportportal.constant.SecurityConstant.TOKEN_PREFIX;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.ImageIO;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.FileSystemUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.supportportal.SupportportalApplication;
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.service.ProfileImageService;
+
+/**
+ * End-to-end load test of the HTTP API that runs on an offline machine. The application is booted in-process
+ * with the test configuration, so against the embedded H2 database in MySQL mode, with a GreenMail server
+ * standing in for SMTP. It seeds users and profile images, then drives each scenario with concurrent clients,
+ * first for a warm-up and then for the measured duration.
+ * <p>
+ * For every endpoint it reports throughput and the p50 and p99 latency seen by the clients, plus the bytes
+ * allocated per request and per second on the request thread, measured by {@link AllocationRecorder}. Clients
+ * and server share the machine, so compare runs made on the same box. Results are printed and written to
+ * {@code target/loadtest-result-platform.json}, or {@code -virtual.json} when requests run on virtual threads.
+ * <p>
+ * To compare platform and virtual request threads, run it twice on the same box, the second time with
+ * {@code VIRTUAL_THREADS_ENABLED=true} on Java 21 or later; on older runtimes that run stays on platform threads
+ * and is reported as such.
+ * <p>
+ * Options, as {@code key=value} arguments: {@code users} (1000), {@code clients} (32), {@code warmup} seconds
+ * (5), {@code duration} seconds (30), {@code scenarios} out of login, list, avatar, image, register and mixed
+ * (all of them), {@code bcrypt-strength} (10) and {@code images} (50).
+ */
+public class LoadTest {
+
+	private static final String LOGIN = "POST /user/login";
+	private static final String REGISTER = "POST /user/register";
+	private static final String LIST = "GET /user/list";
+	private static final String AVATAR = "GET /user/image/profile/{username}";
+	private static final String IMAGE = "GET /user/image/{imageId}.jpg";
+
+	private static final String USERNAME_PREFIX = "loadtest-user-";
+	private static final String ADMIN_USERNAME = "loadtest-admin";
+	private static final String PASSWORD = "load-test-password";
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	private static final String HAS_NEXT_HEADER = "X-Has-Next";
+	private static final int PAGE_SIZE = 50;
+	private static final int[] THUMBNAIL_SIZES = { 64, 128, 512 };
+	private static final String WORK_FOLDER = "target/loadtest/";
+	private static final String RESULT_FILE = "target/loadtest-result-%s.json";
+
+	// The test configuration sends mail to this account on 127.0.0.1:3025.
+	private static final int SMTP_PORT = 3025;
+	private static final String MAIL_USER = "support@example.com";
+	private static final String MAIL_PASSWORD = "secret";
+
+	private final ConfigurableApplicationContext context;
+	private final AllocationRecorder allocationRecorder;
+	private final int users;
+	private final int clients;
+	private final int warmupSeconds;
+	private final int durationSeconds;
+	private final int images;
+	private final String baseUrl;
+	private final String threads;
+	private final List<String> imageIds = new ArrayList<>();
+	private final AtomicLong registrations = new AtomicLong();
+	private final AtomicReference<Map<String, Histogram>> latencies = new AtomicReference<>(new ConcurrentHashMap<>());
+	private final AtomicReference<Map<String, LongAdder>> errors = new AtomicReference<>(new ConcurrentHashMap<>());
+
+	private LoadTest(ConfigurableApplicationContext context, AllocationRecorder allocationRecorder,
+			Map<String, String> options) {
+		this.context = context;
+		this.allocationRecorder = allocationRecorder;
+		this.users = Integer.parseInt(options.getOrDefault("users", "1000"));
+		this.clients = Integer.parseInt(options.getOrDefault("clients", "32"));
+		this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+		this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+		this.images = Integer.parseInt(options.getOrDefault("images", "50"));
+		this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		this.threads = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform";
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+		int clients = Integer.parseInt(options.getOrDefault("clients", "32"));
+		System.setProperty("http.maxConnections", String.valueOf(clients));
+		FileSystemUtils.deleteRecursively(new File(WORK_FOLDER));
+
+		GreenMail greenMail = new GreenMail(new ServerSetup(SMTP_PORT, "127.0.0.1", "smtp"))
+				.withConfiguration(GreenMailConfiguration.aConfig().withUser(MAIL_USER, MAIL_PASSWORD));
+		greenMail.start();
+		AllocationRecorder allocationRecorder = new AllocationRecorder();
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(SupportportalApplication.class)
+				.initializers(applicationContext -> applicationContext.getBeanFactory()
+						.registerSingleton("allocationRecorder", allocationRecorder.registration()))
+				.run("--server.port=0",
+						"--logging.level.root=WARN",
+						"--spring.jpa.show-sql=false",
+						"--spring.jpa.properties.hibernate.generate_statistics=false",
+						"--security.bcrypt.strength=" + options.getOrDefault("bcrypt-strength", "10"),
+						"--security.login-attempts.maximum-attempts-per-address=" + Integer.MAX_VALUE,
+						"--mail.outbox.poll-interval-ms=1000",
+						"--image.store.folder=" + WORK_FOLDER + "images/",
+						"--image.avatar.folder=" + WORK_FOLDER + "avatars/");
+		try {
+			LoadTest loadTest = new LoadTest(context, allocationRecorder, options);
+			loadTest.seed();
+			List<Map<String, Object>> results = new ArrayList<>();
+			for (String scenario : options.getOrDefault("scenarios", "login,list,avatar,image,register,mixed")
+					.split(",")) {
+				results.addAll(loadTest.run(scenario.trim()));
+			}
+			String resultFile = String.format(RESULT_FILE, loadTest.threads);
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(resultFile), results);
+			System.out.printf("%d emails delivered to the SMTP stand-in, results written to %s%n",
+					greenMail.getReceivedMessages().length, resultFile);
+		} finally {
+			context.close();
+			greenMail.stop();
+		}
+	}
+
+	private void seed() throws IOException {
+		long start = System.nanoTime();
+		String encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		List<User> batch = new ArrayList<>();
+		for (int i = 0; i <= users; i++) {
+			boolean admin = i == users;
+			batch.add(user(admin ? ADMIN_USERNAME : USERNAME_PREFIX + i, 9000000000L + i, encodedPassword,
+					admin ? Role.ROLE_SUPER_ADMIN : Role.ROLE_USER));
+			if (batch.size() == 1000 || admin) {
+				userRepository.saveAll(batch);
+				batch.clear();
+			}
+		}
+		ProfileImageService profileImageService = context.getBean(ProfileImageService.class);
+		for (int i = 0; i < images; i++) {
+			imageIds.add(profileImageService.saveProfileImage(
+					new MockMultipartFile("profileImage", "face.jpg", "image/jpeg", jpeg(i))));
+		}
+		System.out.printf("Seeded %d users and %d profile images in %d ms%n", users, images,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private List<Map<String, Object>> run(String scenario) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		long stopAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			Client client = new Client();
+			futures.add(executor.submit(() -> {
+				while (System.nanoTime() < stopAt) {
+					client.step(scenario);
+				}
+				return null;
+			}));
+		}
+		TimeUnit.SECONDS.sleep(warmupSeconds);
+		latencies.set(new ConcurrentHashMap<>());
+		errors.set(new ConcurrentHashMap<>());
+		allocationRecorder.reset();
+		long measureStart = System.nanoTime();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - measureStart) / 1e9;
+		executor.shutdown();
+		return report(scenario, seconds, latencies.get(), errors.get(), allocationRecorder.reset());
+	}
+
+	private List<Map<String, Object>> report(String scenario, double seconds, Map<String, Histogram> latencies,
+			Map<String, LongAdder> errors, Map<String, Long> allocations) {
+		System.out.printf("%n%s request threads%n%-9s %-36s %9s %7s %9s %9s %9s %9s %11s%n", threads, "scenario",
+				"endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "KB/req", "alloc MB/s");
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+			Histogram histogram = entry.getValue();
+			long requests = histogram.getTotalCount();
+			long failed = errors.containsKey(entry.getKey()) ? errors.get(entry.getKey()).sum() : 0;
+			double throughput = requests / seconds;
+			double p50 = histogram.getValueAtPercentile(50) / 1000.0;
+			double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+			long bytesPerRequest = allocations.getOrDefault(entry.getKey(), 0L);
+			double allocationRate = bytesPerRequest * throughput / (1024 * 1024);
+			System.out.printf(Locale.ROOT, "%-9s %-36s %9d %7d %9.1f %9.2f %9.2f %9.1f %11.1f%n", scenario,
+					entry.getKey(), requests, failed, throughput, p50, p99, bytesPerRequest / 1024.0, allocationRate);
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("scenario", scenario);
+			row.put("endpoint", entry.getKey());
+			row.put("threads", threads);
+			row.put("clients", clients);
+			row.put("requests", requests);
+			row.put("errors", failed);
+			row.put("throughput", throughput);
+			row.put("p50Millis", p50);
+			row.put("p99Millis", p99);
+			row.put("allocatedBytesPerRequest", bytesPerRequest);
+			row.put("allocationMegabytesPerSecond", allocationRate);
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private void record(String endpoint, long startNanos, boolean ok) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+		latencies.get().computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3)).recordValue(micros);
+		if (!ok) {
+			errors.get().computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+		}
+	}
+
+	/**
+	 * One simulated user agent, which keeps its token and its place in the user list between steps.
+	 */
+	private class Client {
+
+		private String token;
+		private String cursor;
+
+		void step(String scenario) throws IOException {
+			switch (scenario) {
+			case "login" -> login();
+			case "list" -> list();
+			case "avatar" -> avatar();
+			case "image" -> image();
+			case "register" -> register();
+			case "mixed" -> mixed();
+			default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+			}
+		}
+
+		private void mixed() throws IOException {
+			int dice = ThreadLocalRandom.current().nextInt(100);
+			if (dice < 10) {
+				login();
+			} else if (dice < 40) {
+				list();
+			} else if (dice < 70) {
+				avatar();
+			} else if (dice < 95) {
+				image();
+			} else {
+				register();
+			}
+		}
+
+		private void login() throws IOException {
+			String username = USERNAME_PREFIX + ThreadLocalRandom.current().nextInt(users);
+			send(LOGIN, "POST", "/user/login", credentials(username), null);
+		}
+
+		private void list() throws IOException {
+			if (token == null) {
+				token = send(null, "POST", "/user/login", credentials(ADMIN_USERNAME), null)
+						.getHeaderField(JWT_TOKEN_HEADER);
+			}
+			String path = "/user/list?size=" + PAGE_SIZE + (cursor != null ? "&after=" + cursor : "");
+			HttpURLConnection connection = send(LIST, "GET", path, null, token);
+			cursor = "true".equals(connection.getHeaderField(HAS_NEXT_HEADER))
+					? connection.getHeaderField(NEXT_CURSOR_HEADER)
+					: null;
+		}
+
+		private void avatar() throws IOException {
+			send(AVATAR, "GET", "/user/image/profile/" + USERNAME_PREFIX + ThreadLocalRandom.current().nextInt(users),
+					null, null);
+		}
+
+		private void image() throws IOException {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			String imageId = imageIds.get(random.nextInt(imageIds.size()));
+			send(IMAGE, "GET", "/user/image/" + imageId + ".jpg?size="
+					+ THUMBNAIL_SIZES[random.nextInt(THUMBNAIL_SIZES.length)], null, null);
+		}
+
+		private void register() throws IOException {
+			String username = "loadtest-registered-" + registrations.incrementAndGet();
+			send(REGISTER, "POST", "/user/register", "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"username\":\""
+					+ username + "\",\"email\":\"" + username + "@example.com\"}", null);
+		}
+
+		/**
+		 * Sends the request and reads the whole response, so the connection can be reused, recording the latency
+		 * under the endpoint unless it is {@code null}.
+		 */
+		private HttpURLConnection send(String endpoint, String method, String path, String json, String token)
+				throws IOException {
+			long start = System.nanoTime();
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+			connection.setRequestMethod(method);
+			if (token != null) {
+				connection.setRequestProperty("Authorization", TOKEN_PREFIX + token);
+			}
+			boolean ok;
+			try {
+				if (json != null) {
+					connection.setDoOutput(true);
+					connection.setRequestProperty("Content-Type", "application/json");
+					try (OutputStream body = connection.getOutputStream()) {
+						body.write(json.getBytes(StandardCharsets.UTF_8));
+					}
+				}
+				int status = connection.getResponseCode();
+				try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+					if (body != null) {
+						body.readAllBytes();
+					}
+				}
+				ok = status == 200;
+			} catch (IOException e) {
+				ok = false;
+			}
+			if (endpoint != null) {
+				record(endpoint, start, ok);
+			}
+			return connection;
+		}
+	}
+
+	private static String credentials(String username) {
+		return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+	}
+
+	private static User user(String username, long userId, String encodedPassword, Role role) {
+		User user = new User();
+		user.setUserId(String.valueOf(userId));
+		user.setFirstName("Load");
+		user.setLastName("Test");
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword(encodedPassword);
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(role.name());
+		return user;
+	}
+
+	private static byte[] jpeg(int seed) throws IOException {
+		BufferedImage image = new BufferedImage(640, 640, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		try {
+			graphics.setColor(Color.getHSBColor(seed / 50f, 0.5f, 0.8f));
+			graphics.fillRect(0, 0, 640, 640);
+			graphics.setColor(Color.DARK_GRAY);
+			graphics.fillOval(160 + seed % 64, 160, 320, 320);
+		} finally {
+			graphics.dispose();
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpg", outputStream);
+		return outputStream.toByteArray();
+	}
+}
@@ -0,0 +1,87 @@
+package com.supportportal.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.supportportal.exception.domain.TooManyLoginAttemptsException;
+import com.supportportal.service.LoginAttemptService;
+import com.supportportal.service.impl.InMemoryLoginAttemptStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The login-attempt checks of a failed login through {@link LoginAttemptService}, with many threads hitting
+ * either one account and one address, as in a credential-stuffing burst, or an account of their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class LoginAttemptServiceBenchmark {
+
+	private static final String HOT_USERNAME = "admin";
+	private static final String HOT_ADDRESS = "203.0.113.7";
+
+	private LoginAttemptService loginAttemptService;
+
+	@State(Scope.Thread)
+	public static class ThreadKeys {
+
+		private static final AtomicInteger THREADS = new AtomicInteger();
+
+		private String username;
+		private String address;
+
+		@Setup
+		public void setUp() {
+			int thread = THREADS.incrementAndGet();
+			username = "user" + thread;
+			address = "198.51.100." + thread;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		loginAttemptService = new LoginAttemptService(new InMemoryLoginAttemptStore(15, 15, 1024), Integer.MAX_VALUE,
+				Integer.MAX_VALUE, 15, 15, new SimpleMeterRegistry());
+	}
+
+	@Benchmark
+	public boolean failedLoginOfOneAccount() throws TooManyLoginAttemptsException {
+		return failedLogin(HOT_USERNAME, HOT_ADDRESS);
+	}
+
+	@Benchmark
+	public boolean failedLoginOfOwnAccount(ThreadKeys keys) throws TooManyLoginAttemptsException {
+		return failedLogin(keys.username, keys.address);
+	}
+
+	private boolean failedLogin(String username, String address) throws TooManyLoginAttemptsException {
+		loginAttemptService.validateAddress(address);
+		loginAttemptService.addAddressToLoginAttemptCache(address);
+		loginAttemptService.addUserToLoginAttemptCache(username);
+		return loginAttemptService.hasExceededMaxAttempts(username);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LoginAttemptServiceBenchmark.class.getSimpleName()).build()).run();
+	}
+}
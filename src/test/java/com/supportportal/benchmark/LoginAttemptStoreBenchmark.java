@@ -0,0 +1,78 @@
+package com.supportportal.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.supportportal.service.impl.InMemoryLoginAttemptStore;
+
+/**
+ * Many threads failing logins for the same key, the worst case for a per-key counter. Compares the former
+ * get-then-put on a Guava cache, which also loses increments under this load, with the sliding-window
+ * counters of {@link InMemoryLoginAttemptStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class LoginAttemptStoreBenchmark {
+
+	private static final String HOT_KEY = "user:admin";
+
+	private LoadingCache<String, Integer> legacyCache;
+	private InMemoryLoginAttemptStore store;
+
+	@Setup
+	public void setUp() {
+		legacyCache = CacheBuilder.newBuilder()
+				.expireAfterWrite(15, TimeUnit.MINUTES)
+				.maximumSize(100)
+				.build(new CacheLoader<String, Integer>() {
+					public Integer load(String key) {
+						return 0;
+					}
+				});
+		store = new InMemoryLoginAttemptStore(15, 15, 16);
+	}
+
+	@Benchmark
+	public int legacyGetThenPut() throws ExecutionException {
+		int attempts = 1 + legacyCache.get(HOT_KEY);
+		legacyCache.put(HOT_KEY, attempts);
+		return attempts;
+	}
+
+	@Benchmark
+	public int slidingWindowIncrement() {
+		return store.increment(HOT_KEY);
+	}
+
+	@Benchmark
+	public int slidingWindowRead() {
+		return store.getAttempts(HOT_KEY);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LoginAttemptStoreBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,64 @@
+package com.supportportal.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+
+/**
+ * Authority lookups done on every login: {@link UserPrincipal#getAuthorities()} for Spring Security and
+ * {@link User#getAuthorities()} for the token claims, for the smallest and the largest role.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipalBenchmark {
+
+	@Param({ "ROLE_USER", "ROLE_SUPER_ADMIN" })
+	private String role;
+
+	private User user;
+	private UserPrincipal userPrincipal;
+
+	@Setup
+	public void setUp() {
+		user = new User();
+		user.setUsername("benchmark");
+		user.setRole(role);
+		userPrincipal = new UserPrincipal(user);
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> principalAuthorities() {
+		return userPrincipal.getAuthorities();
+	}
+
+	@Benchmark
+	public String[] userAuthorities() {
+		return user.getAuthorities();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(UserPrincipalBenchmark.class.getSimpleName()).build()).run();
+	}
+}
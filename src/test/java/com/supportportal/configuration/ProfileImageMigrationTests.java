@@ -0,0 +1,106 @@
+package com.supportportal.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.service.ProfileImageService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileImageMigrationTests {
+
+	private static final String BASE_URL = "http://localhost:8081";
+
+	@Autowired
+	private ProfileImageMigration profileImageMigration;
+
+	@Autowired
+	private ProfileImageService profileImageService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Value("${image.legacy-folder}")
+	private Path legacyFolder;
+
+	@Test
+	void migrateImportsLegacyImagesAndRewritesTheirUrls() throws Exception {
+		writeLegacyImage("legacy-user");
+		saveLegacyUser("6100000001", "legacy-user");
+		saveLegacyUser("6100000002", "legacy-missing");
+
+		profileImageMigration.migrate();
+
+		User migrated = userRepository.findUserByUsername("legacy-user");
+		assertThat(migrated.getProfileImageId()).isNotNull();
+		assertThat(migrated.getProfileImageUrl())
+				.isEqualTo(BASE_URL + "/user/image/" + migrated.getProfileImageId() + ".jpg");
+		assertThat(profileImageService.findProfileImage(migrated.getProfileImageId(), null)).isNotNull();
+		User missing = userRepository.findUserByUsername("legacy-missing");
+		assertThat(missing.getProfileImageId()).isNull();
+		assertThat(missing.getProfileImageUrl()).isEqualTo(BASE_URL + "/user/image/profile/legacy-missing.jpg");
+
+		mockMvc.perform(get("/user/image/legacy-user/legacy-user.jpg"))
+				.andExpect(status().isMovedPermanently())
+				.andExpect(header().string(HttpHeaders.LOCATION, migrated.getProfileImageUrl()));
+		mockMvc.perform(get("/user/image/nobody/nobody.jpg"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void legacyUrlsOfUsersNotYetMigratedDoNotRedirectToThemselves() throws Exception {
+		saveLegacyUser("6100000003", "legacy-pending");
+
+		mockMvc.perform(get("/user/image/legacy-pending/legacy-pending.jpg"))
+				.andExpect(status().isNotFound());
+	}
+
+	private void writeLegacyImage(String username) throws IOException {
+		Path folder = Files.createDirectories(legacyFolder.resolve(username));
+		ImageIO.write(new BufferedImage(80, 60, BufferedImage.TYPE_INT_RGB), "jpg", folder.resolve(username + ".jpg").toFile());
+	}
+
+	private void saveLegacyUser(String userId, String username) {
+		User user = userRepository.findUserByUsername(username);
+		if (user == null) {
+			user = new User();
+			user.setUserId(userId);
+			user.setFirstName("Legacy");
+			user.setLastName("User");
+			user.setUsername(username);
+			user.setEmail(username + "@example.com");
+			user.setPassword("not-a-real-hash");
+			user.setJoinDate(new Date());
+			user.setActive(true);
+			user.setNotLocked(true);
+			user.setRole(Role.ROLE_USER.name());
+		}
+		user.setProfileImageId(null);
+		user.setProfileImageUrl(BASE_URL + "/user/image/" + username + "/" + username + ".jpg");
+		userRepository.save(user);
+	}
+}
@@ -0,0 +1,31 @@
+package com.supportportal.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class UserSchemaMigrationTests {
+
+	private static final String COUNT_AUTHORITIES_COLUMN = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+			+ "WHERE UPPER(TABLE_NAME) = 'USER' AND UPPER(COLUMN_NAME) = 'AUTHORITIES'";
+
+	@Autowired
+	private UserSchemaMigration userSchemaMigration;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migrateDropsTheLegacyAuthoritiesColumn() {
+		jdbcTemplate.execute("ALTER TABLE user ADD COLUMN authorities VARBINARY(255)");
+		assertThat(jdbcTemplate.queryForObject(COUNT_AUTHORITIES_COLUMN, Integer.class)).isEqualTo(1);
+
+		userSchemaMigration.migrate();
+
+		assertThat(jdbcTemplate.queryForObject(COUNT_AUTHORITIES_COLUMN, Integer.class)).isZero();
+	}
+}
@@ -0,0 +1,32 @@
+package com.supportportal.enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+
+class RoleTests {
+
+	@Test
+	void unknownRolesGrantNoAuthorities() {
+		User user = new User();
+		user.setRole("ROLE_LEGACY");
+
+		assertThat(Role.find("ROLE_LEGACY")).isNull();
+		assertThat(user.getAuthorities()).isEmpty();
+		assertThat(new UserPrincipal(user).getAuthorities()).isEmpty();
+	}
+
+	@Test
+	void knownRolesGrantTheirAuthorities() {
+		User user = new User();
+		user.setRole(Role.ROLE_HR.name());
+
+		assertThat(Role.find("ROLE_HR")).isEqualTo(Role.ROLE_HR);
+		assertThat(user.getAuthorities()).containsExactly("user:read", "user:update");
+		assertThat(new UserPrincipal(user).getAuthorities()).extracting("authority")
+				.containsExactly("user:read", "user:update");
+	}
+}
@@ -0,0 +1,86 @@
+package com.supportportal.filter;
+
+import static com.supportportal.constant.SecurityConstant.AUTHORITIES;
+import static com.supportportal.constant.SecurityConstant.GET_ARRAYS_LLC;
+import static com.supportportal.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+import com.supportportal.enumeration.Role;
+import com.supportportal.utility.JWTTokenProvider;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class JwtAuthorizationFilterTests {
+
+	private static final String USERNAME = "filter-admin";
+
+	private static final String PROTECTED_URL = "/actuator/prometheus";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JWTTokenProvider jwtTokenProvider;
+
+	@Value("${jwt.secret}")
+	private String secret;
+
+	@Test
+	void aValidBearerTokenCarriesItsAuthorities() throws Exception {
+		String token = jwtTokenProvider.generateJwtToken(new UserPrincipal(user()));
+
+		mockMvc.perform(get(PROTECTED_URL).header(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void aTokenWithoutTheBearerPrefixIsIgnored() throws Exception {
+		String token = jwtTokenProvider.generateJwtToken(new UserPrincipal(user()));
+
+		mockMvc.perform(get(PROTECTED_URL).header(HttpHeaders.AUTHORIZATION, token))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void anExpiredTokenIsRejected() throws Exception {
+		String token = JWT.create()
+				.withIssuer(GET_ARRAYS_LLC)
+				.withIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+				.withSubject(USERNAME)
+				.withArrayClaim(AUTHORITIES, Role.ROLE_SUPER_ADMIN.getAuthorities())
+				.withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+				.sign(Algorithm.HMAC512(secret.getBytes()));
+
+		mockMvc.perform(get(PROTECTED_URL).header(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isForbidden());
+	}
+
+	private static User user() {
+		User user = new User();
+		user.setFirstName("Filter");
+		user.setLastName("Admin");
+		user.setUsername(USERNAME);
+		user.setEmail("filter-admin@example.com");
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_SUPER_ADMIN.name());
+		return user;
+	}
+}
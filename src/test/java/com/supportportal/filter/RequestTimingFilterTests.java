@@ -0,0 +1,81 @@
+package com.supportportal.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"request-timing.server-timing=true",
+		"request-timing.slow-request.threshold-ms=0",
+		"request-timing.slow-request.sample-rate=1"
+})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTimingFilterTests {
+
+	private static final String USERNAME = "timed-user";
+	private static final String PASSWORD = "timed-password";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void loginReportsItsSpansInTheHeaderAndTheSlowRequestLog(CapturedOutput output) throws Exception {
+		if (userRepository.findUserByUsername(USERNAME) == null) {
+			userRepository.save(user(passwordEncoder.encode(PASSWORD)));
+		}
+
+		String serverTiming = mockMvc.perform(post("/user/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("Server-Timing");
+
+		assertThat(serverTiming)
+				.containsPattern("db;dur=[0-9.]+;desc=\"[0-9]+ calls?\"")
+				.contains("hash;dur=", "jwt;dur=")
+				.containsPattern("total;dur=[0-9.]+$");
+		assertThat(output.getOut())
+				.contains("Slow request method=POST uri=/user/login pattern=/user/login status=200")
+				.contains("hash:matches@", "jwt:generate@")
+				.containsPattern("db:UserRepository\\.\\w+@");
+	}
+
+	private User user(String encodedPassword) {
+		User user = new User();
+		user.setUserId(String.valueOf(Math.abs(USERNAME.hashCode())));
+		user.setFirstName("Timed");
+		user.setLastName("User");
+		user.setUsername(USERNAME);
+		user.setEmail("timed-user@example.com");
+		user.setPassword(encodedPassword);
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		return user;
+	}
+}
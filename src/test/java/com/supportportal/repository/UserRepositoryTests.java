@@ -0,0 +1,69 @@
+package com.supportportal.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserSummary;
+import com.supportportal.enumeration.Role;
+
+@SpringBootTest
+class UserRepositoryTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User first;
+
+	private User second;
+
+	@BeforeEach
+	void setUp() {
+		first = saveIfAbsent("5000000001", "collision-first");
+		second = saveIfAbsent("5000000002", "collision-second");
+	}
+
+	@Test
+	void collisionsAreFoundByUsernameOrEmail() {
+		assertThat(userRepository.findUsernameOrEmailCollisions("collision-first", "free@example.com", null))
+				.extracting(UserSummary::getUsername).containsExactly("collision-first");
+		assertThat(userRepository.findUsernameOrEmailCollisions("free", "collision-second@example.com", null))
+				.extracting(UserSummary::getUsername).containsExactly("collision-second");
+		assertThat(userRepository.findUsernameOrEmailCollisions("collision-first", "collision-second@example.com", null))
+				.extracting(UserSummary::getUsername).containsExactlyInAnyOrder("collision-first", "collision-second");
+		assertThat(userRepository.findUsernameOrEmailCollisions("free", "free@example.com", null)).isEmpty();
+	}
+
+	@Test
+	void collisionsExcludeTheUserBeingUpdated() {
+		assertThat(userRepository.findUsernameOrEmailCollisions("collision-first", "collision-first@example.com",
+				first.getId())).isEmpty();
+		assertThat(userRepository.findUsernameOrEmailCollisions("collision-first", "collision-second@example.com",
+				first.getId())).extracting(UserSummary::getId).containsExactly(second.getId());
+	}
+
+	private User saveIfAbsent(String userId, String username) {
+		User user = userRepository.findUserByUsername(username);
+		if (user != null) {
+			return user;
+		}
+		user = new User();
+		user.setUserId(userId);
+		user.setFirstName("Collision");
+		user.setLastName("User");
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword("not-a-real-hash");
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		return userRepository.save(user);
+	}
+}
@@ -0,0 +1,109 @@
+package com.supportportal.resource;
+
+import static com.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static com.supportportal.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.supportportal.domain.User;
+import com.supportportal.domain.UserPrincipal;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.utility.JWTTokenProvider;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointTests {
+
+	private static final String USERNAME = "metrics-user";
+	private static final String PASSWORD = "metrics-password";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JWTTokenProvider jwtTokenProvider;
+
+	@Test
+	void scrapeIsForbiddenWithoutTheMetricsAuthority() throws Exception {
+		User plainUser = user("unused");
+		plainUser.setRole(Role.ROLE_USER.name());
+		String token = jwtTokenProvider.generateJwtToken(new UserPrincipal(plainUser));
+
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void loginIsVisibleInThePrometheusScrape() throws Exception {
+		if (userRepository.findUserByUsername(USERNAME) == null) {
+			userRepository.save(user(passwordEncoder.encode(PASSWORD)));
+		}
+
+		mockMvc.perform(login("wrong-password"));
+		String token = mockMvc.perform(login(PASSWORD))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(JWT_TOKEN_HEADER);
+		mockMvc.perform(get("/actuator/health").header(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isForbidden());
+		String scrape = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("jwt_verification_seconds_bucket{result=\"valid\"")
+				.contains("password_hashing_seconds_count{operation=\"matches\"}")
+				.contains("login_attempts_failed_total{key=\"username\"}")
+				.contains("login_attempts_lockouts_total{key=\"address\"}")
+				.containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*repository=\"UserRepository\"")
+				.contains("user_cache_hit_ratio");
+	}
+
+	private MockHttpServletRequestBuilder login(String password) {
+		return post("/user/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + password + "\"}");
+	}
+
+	private User user(String encodedPassword) {
+		User user = new User();
+		user.setUserId(String.valueOf(Math.abs(USERNAME.hashCode())));
+		user.setFirstName("Metrics");
+		user.setLastName("User");
+		user.setUsername(USERNAME);
+		user.setEmail("metrics-user@example.com");
+		user.setPassword(encodedPassword);
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_ADMIN.name());
+		return user;
+	}
+}
@@ -0,0 +1,112 @@
+package com.supportportal.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"security.bcrypt.executor.threads=1",
+		"security.bcrypt.executor.queue-capacity=1",
+		"security.bcrypt.executor.retry-after-seconds=7"
+})
+@AutoConfigureMockMvc
+class UserResourceBusyTests {
+
+	private static final String ENCODED_PASSWORD = "$2a$04$Fd2qLbuQ0Tvw2mWc3sBp8.3QuTQnm2fQnRRC4l4U8rWJVPrk1Dmyy";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void loginIsRefusedWithRetryAfterWhileTheHashingQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < 2; i++) {
+				callers.submit(() -> passwordEncoder.matches(new BlockingPassword(release), ENCODED_PASSWORD));
+			}
+			awaitQueueDepth(1);
+
+			mockMvc.perform(post("/user/login")
+							.header(HttpHeaders.ORIGIN, "http://localhost:4200")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"username\":\"nobody\",\"password\":\"wrong\"}"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+					.andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString(HttpHeaders.RETRY_AFTER)));
+		} finally {
+			release.countDown();
+			callers.shutdown();
+			assertThat(callers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (meterRegistry.get("bounded.executor.queue.depth").tag("name", "password-hashing").gauge().value() < depth) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * A password whose hash cannot start before the test releases it, keeping the hashing thread busy.
+	 */
+	private static final class BlockingPassword implements CharSequence {
+
+		private final CountDownLatch release;
+
+		private BlockingPassword(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public int length() {
+			return toString().length();
+		}
+
+		@Override
+		public char charAt(int index) {
+			return toString().charAt(index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "blocked";
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.supportportal.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "security.login-attempts.maximum-attempts-per-address=3")
+class UserResourceForwardedAddressTests {
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	void failedLoginsAreCountedPerForwardedClientAddress() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertThat(failedLogin("203.0.113.10").statusCode()).isNotEqualTo(TOO_MANY_REQUESTS);
+		}
+
+		assertThat(failedLogin("203.0.113.10").statusCode()).isEqualTo(TOO_MANY_REQUESTS);
+		assertThat(failedLogin("203.0.113.11").statusCode()).isNotEqualTo(TOO_MANY_REQUESTS);
+		assertThat(failedLogin("198.51.100.7, 203.0.113.12").statusCode()).isNotEqualTo(TOO_MANY_REQUESTS);
+	}
+
+	private HttpResponse<String> failedLogin(String forwardedFor) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/user/login"))
+				.header("Content-Type", "application/json")
+				.header("X-Forwarded-For", forwardedFor)
+				.POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"nobody\",\"password\":\"wrong\"}"))
+				.build();
+		return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,159 @@
+package com.supportportal.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Date;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.google.common.hash.Hashing;
+import com.supportportal.domain.StoredImage;
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.service.ProfileImageService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserResourceImageTests {
+
+	private static final String AVATAR_USER = "avatar-user";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProfileImageService profileImageService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Value("${image.avatar.folder}")
+	private Path avatarFolder;
+
+	private StoredImage storedImage;
+
+	private String imageUrl;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+		String imageId = profileImageService.saveProfileImage(
+				new MockMultipartFile("profileImage", "upload.png", "image/png", outputStream.toByteArray()));
+		storedImage = profileImageService.findProfileImage(imageId, null);
+		imageUrl = "/user/image/" + imageId + ".jpg";
+		if (userRepository.findUserByUsername(AVATAR_USER) == null) {
+			userRepository.save(user(AVATAR_USER));
+		}
+	}
+
+	@Test
+	void imageIsServedWithCachingHeaders() throws Exception {
+		MvcResult result = mockMvc.perform(get(imageUrl))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + storedImage.getETag() + "\""))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+				.andReturn();
+
+		assertThat(result.getResponse().getContentAsByteArray()).hasSize((int) storedImage.getContentLength());
+	}
+
+	@Test
+	void matchingETagIsAnsweredWithNotModified() throws Exception {
+		MvcResult result = mockMvc.perform(get(imageUrl)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"" + storedImage.getETag() + "\""))
+				.andExpect(status().isNotModified())
+				.andReturn();
+
+		assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void rangeRequestReturnsPartialContent() throws Exception {
+		MvcResult result = mockMvc.perform(get(imageUrl).header(HttpHeaders.RANGE, "bytes=0-99"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/" + storedImage.getContentLength()))
+				.andReturn();
+
+		assertThat(result.getResponse().getContentAsByteArray()).hasSize(100);
+	}
+
+	@Test
+	void thumbnailHasItsOwnETag() throws Exception {
+		StoredImage thumbnail = profileImageService.findProfileImage(storedImage.getETag(), 64);
+
+		mockMvc.perform(get(imageUrl).param("size", "64"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + thumbnail.getETag() + "\""));
+		assertThat(thumbnail.getETag()).isNotEqualTo(storedImage.getETag());
+	}
+
+	@Test
+	void unknownImageWithoutDefaultIsNotFound() throws Exception {
+		mockMvc.perform(get("/user/image/" + "0".repeat(64) + ".jpg"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+	}
+
+	@Test
+	void placeholderAvatarIsGeneratedLocally() throws Exception {
+		MvcResult result = mockMvc.perform(get("/user/image/profile/" + AVATAR_USER))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn();
+
+		mockMvc.perform(get("/user/image/profile/" + AVATAR_USER)
+						.header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void placeholderAvatarIsNotGeneratedForUnknownUsers() throws Exception {
+		String username = "no-such-user-" + System.nanoTime();
+
+		mockMvc.perform(get("/user/image/profile/" + username))
+				.andExpect(status().isNotFound());
+
+		String usernameHash = Hashing.sha256().hashString(username, StandardCharsets.UTF_8).toString();
+		assertThat(avatarFolder.resolve(usernameHash + ".png")).doesNotExist();
+		assertThat(avatarFolder.resolve(usernameHash + "-remote.png")).doesNotExist();
+	}
+
+	private User user(String username) {
+		User user = new User();
+		user.setUserId(String.valueOf(Math.abs(username.hashCode())));
+		user.setFirstName("Avatar");
+		user.setLastName("User");
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword("unused");
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		return user;
+	}
+}
@@ -0,0 +1,112 @@
+package com.supportportal.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserResourceListTests {
+
+	private static final int USER_COUNT = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < USER_COUNT; i++) {
+			String username = "list-user-" + i;
+			if (userRepository.findUserByUsername(username) == null) {
+				User user = new User();
+				user.setUserId("20000000" + i);
+				user.setFirstName("List");
+				user.setLastName("User " + i);
+				user.setUsername(username);
+				user.setEmail(username + "@example.com");
+				user.setPassword("not-a-real-hash");
+				user.setJoinDate(new Date());
+				user.setActive(true);
+				user.setNotLocked(true);
+				user.setRole(Role.ROLE_USER.name());
+				userRepository.save(user);
+			}
+		}
+	}
+
+	@Test
+	void listReturnsOnePageAndACursorForTheNext() throws Exception {
+		MvcResult firstPage = mockMvc.perform(get("/user/list").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(header().string("X-Has-Next", "true"))
+				.andExpect(header().exists("X-Next-Cursor"))
+				.andReturn();
+		String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+		mockMvc.perform(get("/user/list").param("size", "2").param("after", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2));
+	}
+
+	@Test
+	void keysetPagesRejectAnotherSort() throws Exception {
+		mockMvc.perform(get("/user/list").param("after", "0").param("sort", "username"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/user/list").param("after", "0").param("sort", "id,desc"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/user/list").param("after", "0").param("sort", "id"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void pagingHeadersAreExposedToTheBrowser() throws Exception {
+		mockMvc.perform(get("/user/list").header(HttpHeaders.ORIGIN, "http://localhost:4200"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+						allOf(containsString("X-Has-Next"), containsString("X-Next-Cursor"))));
+	}
+
+	@Test
+	void listRejectsUnknownSortProperty() throws Exception {
+		mockMvc.perform(get("/user/list").param("sort", "doesNotExist"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamWritesOneJsonLinePerUser() throws Exception {
+		MvcResult result = mockMvc.perform(get("/user/list/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body.lines().count()).isEqualTo(userRepository.count());
+	}
+}
@@ -0,0 +1,102 @@
+package com.supportportal.resource;
+
+import static com.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserResourceLoginTests {
+
+	private static final String USERNAME = "login-user";
+	private static final String PASSWORD = "login-password";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		createUserIfMissing(USERNAME, "login-user@example.com", passwordEncoder.encode(PASSWORD));
+	}
+
+	@Test
+	void loginReadsTheUserWithASingleStatement() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(post("/user/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(JWT_TOKEN_HEADER))
+				.andExpect(jsonPath("$.username").value(USERNAME))
+				.andExpect(jsonPath("$.lastLoginDate").exists());
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void loginRehashesPasswordStoredWithADifferentStrength() throws Exception {
+		String username = "rehash-user";
+		createUserIfMissing(username, "rehash-user@example.com", new BCryptPasswordEncoder(5).encode(PASSWORD));
+
+		mockMvc.perform(post("/user/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.andExpect(status().isOk());
+
+		String storedPassword = userRepository.findUserByUsername(username).getPassword();
+		assertThat(storedPassword).startsWith("$2a$04$");
+		assertThat(passwordEncoder.matches(PASSWORD, storedPassword)).isTrue();
+	}
+
+	private void createUserIfMissing(String username, String email, String encodedPassword) {
+		if (userRepository.findUserByUsername(username) != null) {
+			return;
+		}
+		User user = new User();
+		user.setUserId(String.valueOf(Math.abs(username.hashCode())));
+		user.setFirstName("Login");
+		user.setLastName("User");
+		user.setUsername(username);
+		user.setEmail(email);
+		user.setPassword(encodedPassword);
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		userRepository.save(user);
+	}
+}
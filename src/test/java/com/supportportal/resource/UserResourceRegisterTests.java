@@ -0,0 +1,77 @@
+package com.supportportal.resource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserResourceRegisterTests {
+
+	private static final String USERNAME = "registered-user";
+	private static final String EMAIL = "registered-user@example.com";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void setUp() {
+		if (userRepository.findUserByUsername(USERNAME) == null) {
+			userRepository.save(user());
+		}
+	}
+
+	@Test
+	void registeringATakenEmailIsABadRequest() throws Exception {
+		mockMvc.perform(register("other-user", EMAIL))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.httpStatusCode").value(400));
+	}
+
+	@Test
+	void registeringATakenUsernameIsABadRequest() throws Exception {
+		mockMvc.perform(register(USERNAME, "other-user@example.com"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.httpStatusCode").value(400));
+	}
+
+	private static MockHttpServletRequestBuilder register(String username, String email) {
+		return post("/user/register")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Other\",\"lastName\":\"User\",\"username\":\"" + username
+						+ "\",\"email\":\"" + email + "\"}");
+	}
+
+	private static User user() {
+		User user = new User();
+		user.setUserId(String.valueOf(Math.abs(USERNAME.hashCode())));
+		user.setFirstName("Registered");
+		user.setLastName("User");
+		user.setUsername(USERNAME);
+		user.setEmail(EMAIL);
+		user.setPassword("not-a-real-hash");
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		return user;
+	}
+}
@@ -0,0 +1,101 @@
+package com.supportportal.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserResourceUploadTests {
+
+	private static final String BOUNDARY = "upload-boundary";
+	private static final String USERNAME = "upload-user";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void setUp() {
+		if (userRepository.findUserByUsername(USERNAME) == null) {
+			User user = new User();
+			user.setUserId("3000000001");
+			user.setFirstName("Upload");
+			user.setLastName("User");
+			user.setUsername(USERNAME);
+			user.setEmail(USERNAME + "@example.com");
+			user.setPassword("not-a-real-hash");
+			user.setJoinDate(new Date());
+			user.setActive(true);
+			user.setNotLocked(true);
+			user.setRole(Role.ROLE_USER.name());
+			userRepository.save(user);
+		}
+	}
+
+	@Test
+	void profileImageIsStoredUnderItsContentHash() throws Exception {
+		HttpResponse<String> response = uploadProfileImage(png(200, 100));
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).containsPattern("\"profileImageUrl\":\"[^\"]*/user/image/[0-9a-f]{64}\\.jpg\"");
+	}
+
+	@Test
+	void uploadOverTheEndpointLimitIsRejectedBeforeItIsRead() throws Exception {
+		HttpResponse<String> response = uploadProfileImage(new byte[1536 * 1024]);
+
+		assertThat(response.statusCode()).isEqualTo(413);
+		assertThat(response.body()).contains("THE UPLOAD EXCEEDS THE MAXIMUM ALLOWED SIZE OF 1100 KB");
+	}
+
+	@Test
+	void uploadThatIsNotAnImageIsRejected() throws Exception {
+		HttpResponse<String> response = uploadProfileImage("GIF? no, plain text".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(response.statusCode()).isEqualTo(400);
+	}
+
+	private HttpResponse<String> uploadProfileImage(byte[] image) throws IOException, InterruptedException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"username\"\r\n\r\n" + USERNAME
+				+ "\r\n--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"profileImage\"; filename=\"upload.png\""
+				+ "\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.write(image);
+		body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/user/updateProfileImage"))
+				.header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+				.build();
+		return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static byte[] png(int width, int height) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+		return outputStream.toByteArray();
+	}
+}
@@ -0,0 +1,76 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.supportportal.domain.StoredImage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvatarServiceTests {
+
+	@TempDir
+	Path avatarFolder;
+
+	@Test
+	void avatarIsDeterministicPerUsername() throws IOException {
+		StoredImage alice = avatarService(false).findAvatar("alice");
+		StoredImage bob = avatarService(false).findAvatar("bob");
+
+		assertThat(avatarService(false).findAvatar("alice").getETag()).isEqualTo(alice.getETag());
+		assertThat(bob.getETag()).isNotEqualTo(alice.getETag());
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes(alice.getContent())));
+		assertThat(image.getWidth()).isEqualTo(128);
+		assertThat(image.getHeight()).isEqualTo(128);
+	}
+
+	@Test
+	void avatarIsStoredOnDiskAndReused() throws IOException {
+		StoredImage generated = avatarService(false).findAvatar("alice");
+
+		assertThat(generated.getPath().getParent()).isEqualTo(avatarFolder.toAbsolutePath().normalize());
+		assertThat(Files.readAllBytes(generated.getPath())).isEqualTo(bytes(generated.getContent()));
+		try (var files = Files.list(avatarFolder)) {
+			assertThat(files).hasSize(1);
+		}
+
+		StoredImage reloaded = avatarService(false).findAvatar("alice");
+		assertThat(reloaded.getETag()).isEqualTo(generated.getETag());
+		assertThat(reloaded.getLastModified()).isEqualTo(generated.getLastModified());
+	}
+
+	@Test
+	void unreachableRemoteFallsBackToIdenticon() throws IOException {
+		StoredImage local = avatarService(false).findAvatar("alice");
+
+		StoredImage fallback = avatarService(true).findAvatar("alice");
+
+		assertThat(fallback.getETag()).isEqualTo(local.getETag());
+		assertThat(fallback.getPath()).isEqualTo(local.getPath());
+	}
+
+	private AvatarService avatarService(boolean remoteEnabled) {
+		return new AvatarService(avatarFolder.toString(), 128, 100, remoteEnabled, "http://127.0.0.1:9/",
+				Duration.ofMillis(200), Duration.ofMillis(200), DataSize.ofKilobytes(256), new SimpleMeterRegistry());
+	}
+
+	private static byte[] bytes(ByteBuffer content) {
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+		return bytes;
+	}
+}
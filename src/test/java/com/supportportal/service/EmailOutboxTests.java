@@ -0,0 +1,119 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import javax.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.supportportal.domain.EmailMessage;
+import com.supportportal.enumeration.EmailStatus;
+import com.supportportal.repository.EmailOutboxRepository;
+
+@SpringBootTest
+class EmailOutboxTests {
+
+	@RegisterExtension
+	static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(new ServerSetup(3025, "127.0.0.1", "smtp"))
+			.withConfiguration(GreenMailConfiguration.aConfig().withUser("support@example.com", "secret"));
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxDispatcher emailOutboxDispatcher;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void dispatchDeliversQueuedMessageAndMarksItSent() throws Exception {
+		EmailMessage queued = emailService.sendNewPasswordEmail("Ada", "pa55word", "ada@example.com");
+
+		emailOutboxDispatcher.dispatch();
+
+		assertThat(GREEN_MAIL.waitForIncomingEmail(5000, 1)).isTrue();
+		MimeMessage received = GREEN_MAIL.getReceivedMessages()[0];
+		assertThat(received.getAllRecipients()[0].toString()).isEqualTo("ada@example.com");
+		assertThat(received.getContent().toString()).contains("pa55word");
+
+		EmailMessage sent = awaitStatus(queued.getId(), EmailStatus.SENT);
+		assertThat(sent.getAttempts()).isEqualTo(1);
+		assertThat(sent.getBody()).isNull();
+		assertThat(sent.getSentAt()).isNotNull();
+	}
+
+	@Test
+	void failedDeliveryIsRescheduledWithBackoff() throws Exception {
+		GREEN_MAIL.stop();
+		EmailMessage queued = emailService.sendNewPasswordEmail("Grace", "pa55word", "grace@example.com");
+
+		emailOutboxDispatcher.dispatch();
+
+		EmailMessage retried = awaitStatus(queued.getId(), EmailStatus.PENDING);
+		assertThat(retried.getAttempts()).isEqualTo(1);
+		assertThat(retried.getNextAttemptAt()).isAfter(new Date());
+		assertThat(retried.getLastError()).isNotBlank();
+	}
+
+	@Test
+	void passwordIsEncryptedAtRestAndClearedAfterTheLastAttempt() throws Exception {
+		GREEN_MAIL.stop();
+		EmailMessage queued = emailService.sendNewPasswordEmail("Linus", "s3cr3t-pa55", "linus@example.com");
+		assertThat(storedBody(queued.getId())).startsWith("v1:").doesNotContain("s3cr3t-pa55");
+		assertThat(emailOutboxRepository.findById(queued.getId()).orElseThrow().getBody()).contains("s3cr3t-pa55");
+
+		emailOutboxRepository.markFailedAttempt(queued.getId(), EmailStatus.PENDING, 4, new Date(), "earlier failure");
+		emailOutboxDispatcher.dispatch();
+
+		EmailMessage failed = awaitStatus(queued.getId(), EmailStatus.FAILED);
+		assertThat(failed.getAttempts()).isEqualTo(5);
+		assertThat(failed.getBody()).isNull();
+		assertThat(storedBody(queued.getId())).isNull();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from email_outbox where body like ?", Integer.class,
+				"%s3cr3t-pa55%")).isZero();
+	}
+
+	@Test
+	void purgeDeletesOnlyFinishedMessagesPastTheRetention() {
+		EmailMessage pending = emailService.sendNewPasswordEmail("Ken", "pa55word", "ken@example.com");
+		EmailMessage sent = emailService.sendNewPasswordEmail("Dennis", "pa55word", "dennis@example.com");
+		emailOutboxRepository.markSent(sent.getId(), new Date());
+		jdbcTemplate.update("update email_outbox set created_at = ? where id in (?, ?)",
+				new Date(System.currentTimeMillis() - 30L * 24 * 60 * 60 * 1000), pending.getId(), sent.getId());
+
+		emailOutboxDispatcher.purge();
+
+		assertThat(emailOutboxRepository.findById(sent.getId())).isEmpty();
+		assertThat(emailOutboxRepository.findById(pending.getId())).isPresent();
+		emailOutboxRepository.deleteById(pending.getId());
+	}
+
+	private String storedBody(Long id) {
+		return jdbcTemplate.queryForObject("select body from email_outbox where id = ?", String.class, id);
+	}
+
+	private EmailMessage awaitStatus(Long id, EmailStatus status) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		EmailMessage emailMessage = emailOutboxRepository.findById(id).orElseThrow();
+		while (!(emailMessage.getStatus() == status && emailMessage.getAttempts() > 0)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			emailMessage = emailOutboxRepository.findById(id).orElseThrow();
+		}
+		assertThat(emailMessage.getStatus()).isEqualTo(status);
+		return emailMessage;
+	}
+}
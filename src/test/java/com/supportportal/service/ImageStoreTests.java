@@ -0,0 +1,203 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.hash.Hashing;
+import com.supportportal.domain.StoredImage;
+import com.supportportal.service.impl.LocalImageStore;
+import com.supportportal.service.impl.S3ImageStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ImageStoreTests {
+
+	private static final String KEY = Hashing.sha256().hashString("image", StandardCharsets.UTF_8).toString();
+
+	@TempDir
+	Path imageFolder;
+
+	private HttpServer objectStore;
+
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+	private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+	private final List<String> methods = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void startObjectStore() throws IOException {
+		objectStore = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		objectStore.createContext("/", this::handle);
+		objectStore.start();
+	}
+
+	@AfterEach
+	void stopObjectStore() {
+		objectStore.stop(0);
+	}
+
+	@Test
+	void localStoreShardsByKeyAndWritesEachKeyOnce() throws IOException {
+		LocalImageStore imageStore = new LocalImageStore(imageFolder.toString());
+
+		imageStore.put(KEY, bytes("first"));
+		imageStore.put(KEY, bytes("second"));
+
+		Path path = imageFolder.resolve(KEY.substring(0, 2)).resolve(KEY.substring(2, 4)).resolve(KEY + ".jpg");
+		assertThat(Files.readAllBytes(path)).isEqualTo(bytes("first"));
+		StoredImage storedImage = imageStore.find(KEY);
+		assertThat(storedImage.getPath()).isEqualTo(path);
+		assertThat(storedImage.getETag()).isEqualTo(KEY);
+		assertThat(storedImage.getContentLength()).isEqualTo(5);
+
+		imageStore.delete(KEY);
+		assertThat(imageStore.exists(KEY)).isFalse();
+		assertThat(imageStore.find(KEY)).isNull();
+	}
+
+	@Test
+	void localStoreRejectsKeysThatEscapeItsFolder() {
+		LocalImageStore imageStore = new LocalImageStore(imageFolder.toString());
+
+		assertThatThrownBy(() -> imageStore.find("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void s3StoreRoundTripsThroughSignedRequests() throws IOException {
+		S3ImageStore imageStore = s3ImageStore();
+
+		assertThat(imageStore.exists(KEY)).isFalse();
+		imageStore.put(KEY, bytes("content"));
+
+		assertThat(objects).containsKey("/images/profile-images/" + KEY + ".jpg");
+		assertThat(imageStore.exists(KEY)).isTrue();
+		StoredImage storedImage = imageStore.find(KEY);
+		assertThat(storedImage.getETag()).isEqualTo(KEY);
+		assertThat(storedImage.getContentLength()).isEqualTo(7);
+		assertThat(storedImage.getLastModified()).isPositive();
+		assertThat(read(storedImage)).isEqualTo(bytes("content"));
+
+		imageStore.delete(KEY);
+		assertThat(imageStore.find(KEY)).isNull();
+		assertThat(authorizations).isNotEmpty().allSatisfy(authorization -> assertThat(authorization)
+				.matches("AWS4-HMAC-SHA256 Credential=access/\\d{8}/us-east-1/s3/aws4_request, "
+						+ "SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=[0-9a-f]{64}"));
+	}
+
+	@Test
+	void s3StoreFindsImagesWithoutDownloadingThem() throws IOException {
+		S3ImageStore imageStore = s3ImageStore();
+		byte[] large = new byte[1 << 20];
+		imageStore.put(KEY, large);
+		methods.clear();
+
+		StoredImage storedImage = imageStore.find(KEY);
+
+		assertThat(methods).containsExactly("HEAD");
+		assertThat(storedImage.getContent()).isNull();
+		assertThat(storedImage.getContentLength()).isEqualTo(large.length);
+		assertThat(read(storedImage)).isEqualTo(large);
+		assertThat(methods).containsExactly("HEAD", "GET");
+
+		imageStore.delete(KEY);
+		assertThatThrownBy(() -> read(storedImage)).isInstanceOf(FileNotFoundException.class);
+	}
+
+	@Test
+	void s3StoreReportsUnexpectedStatus() {
+		objectStore.removeContext("/");
+		objectStore.createContext("/", exchange -> {
+			exchange.sendResponseHeaders(403, -1);
+			exchange.close();
+		});
+
+		assertThatThrownBy(() -> s3ImageStore().put(KEY, bytes("content")))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("403");
+	}
+
+	private S3ImageStore s3ImageStore() {
+		return new S3ImageStore("http://127.0.0.1:" + objectStore.getAddress().getPort(), "images", "profile-images/",
+				"us-east-1", "access", "secret", Duration.ofSeconds(1), Duration.ofSeconds(2));
+	}
+
+	/**
+	 * Minimal S3 stand-in: keeps objects in memory and checks that the declared payload hash matches the body.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+		methods.add(exchange.getRequestMethod());
+		String path = exchange.getRequestURI().getPath();
+		byte[] object = objects.get(path);
+		switch (exchange.getRequestMethod()) {
+		case "PUT" -> {
+			byte[] body;
+			try (InputStream inputStream = exchange.getRequestBody()) {
+				body = inputStream.readAllBytes();
+			}
+			String payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+			if (!Hashing.sha256().hashBytes(body).toString().equals(payloadHash)) {
+				exchange.sendResponseHeaders(400, -1);
+				break;
+			}
+			objects.put(path, body);
+			exchange.sendResponseHeaders(200, -1);
+		}
+		case "DELETE" -> {
+			objects.remove(path);
+			exchange.sendResponseHeaders(204, -1);
+		}
+		default -> {
+			if (object == null) {
+				exchange.sendResponseHeaders(404, -1);
+				break;
+			}
+			exchange.getResponseHeaders().add("Last-Modified",
+					DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().add("Content-Length", String.valueOf(object.length));
+				exchange.sendResponseHeaders(200, -1);
+				break;
+			}
+			exchange.sendResponseHeaders(200, object.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(object);
+			}
+		}
+		}
+		exchange.close();
+	}
+
+	private static byte[] read(StoredImage storedImage) throws IOException {
+		try (InputStream inputStream = storedImage.getSource().getInputStream()) {
+			return inputStream.readAllBytes();
+		}
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,105 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.supportportal.domain.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LastLoginServiceTests {
+
+	private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+	private final UserCache userCache = new UserCache(null, Optional.empty(), false, 10, Duration.ofMinutes(1),
+			new SimpleMeterRegistry());
+
+	@Test
+	void loginsOfOneUserAreWrittenAsOneUpdateWithTheLatestDate() throws InterruptedException {
+		LastLoginService lastLoginService = new LastLoginService(jdbcTemplate, userCache, 10);
+		Date firstLogin = new Date(1_000_000L);
+		User user = user(1L, firstLogin);
+
+		for (int i = 0; i < 3; i++) {
+			lastLoginService.recordLogin(user);
+			Thread.sleep(5);
+		}
+		lastLoginService.flush();
+
+		assertThat(jdbcTemplate.batches).hasSize(1);
+		List<Object[]> batch = jdbcTemplate.batches.get(0);
+		assertThat(batch).hasSize(1);
+		assertThat(batch.get(0)).containsExactly(user.getLastLoginDateDisplay(), user.getLastLoginDate(), 1L);
+		assertThat(user.getLastLoginDate()).isAfter(user.getLastLoginDateDisplay()).isAfter(firstLogin);
+
+		lastLoginService.flush();
+		assertThat(jdbcTemplate.batches).hasSize(1);
+	}
+
+	@Test
+	void loginsBeyondTheMaximumPendingAreDroppedUnlessTheUserIsAlreadyPending() {
+		LastLoginService lastLoginService = new LastLoginService(jdbcTemplate, userCache, 2);
+		User first = user(1L, null);
+
+		lastLoginService.recordLogin(first);
+		lastLoginService.recordLogin(user(2L, null));
+		lastLoginService.recordLogin(user(3L, null));
+		lastLoginService.recordLogin(first);
+		lastLoginService.flush();
+
+		assertThat(jdbcTemplate.batches).hasSize(1);
+		assertThat(jdbcTemplate.batches.get(0)).extracting(args -> args[2]).containsExactlyInAnyOrder(1L, 2L);
+	}
+
+	@Test
+	void failedUpdatesAreKeptAndWrittenOnShutdown() {
+		LastLoginService lastLoginService = new LastLoginService(jdbcTemplate, userCache, 10);
+		User user = user(1L, null);
+		lastLoginService.recordLogin(user);
+
+		jdbcTemplate.failing = true;
+		lastLoginService.flush();
+		jdbcTemplate.failing = false;
+		lastLoginService.drain();
+
+		assertThat(jdbcTemplate.batches).hasSize(2);
+		assertThat(jdbcTemplate.batches.get(1)).singleElement()
+				.satisfies(args -> assertThat(args).containsExactly(user.getLastLoginDate(), user.getLastLoginDate(), 1L));
+	}
+
+	private static User user(long id, Date lastLoginDate) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername("login-user-" + id);
+		user.setLastLoginDate(lastLoginDate);
+		return user;
+	}
+
+	/**
+	 * Records every batch it is asked to write, and fails the write instead while {@code failing} is set.
+	 */
+	private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+		private final List<List<Object[]>> batches = new CopyOnWriteArrayList<>();
+
+		private volatile boolean failing;
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			batches.add(List.copyOf(batchArgs));
+			if (failing) {
+				throw new DataAccessResourceFailureException("Database unavailable");
+			}
+			return new int[batchArgs.size()];
+		}
+	}
+}
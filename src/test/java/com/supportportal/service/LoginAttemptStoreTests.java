@@ -0,0 +1,233 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.supportportal.exception.domain.TooManyLoginAttemptsException;
+import com.supportportal.service.impl.InMemoryLoginAttemptStore;
+import com.supportportal.service.impl.JdbcLoginAttemptStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class LoginAttemptStoreTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void inMemoryStoreCountsAndResets() {
+		InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(15, 15, 16);
+
+		assertThat(store.increment("alice")).isEqualTo(1);
+		assertThat(store.increment("alice")).isEqualTo(2);
+		assertThat(store.getAttempts("bob")).isZero();
+
+		store.reset("alice");
+		assertThat(store.getAttempts("alice")).isZero();
+	}
+
+	@Test
+	void inMemoryStoreSlidesAttemptsOutOfTheWindow() {
+		MutableClock clock = new MutableClock();
+		InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(Duration.ofMinutes(3), 3, 16, clock);
+
+		store.increment("carol");
+		clock.advance(Duration.ofMinutes(1));
+		store.increment("carol");
+		store.increment("carol");
+		assertThat(store.getAttempts("carol")).isEqualTo(3);
+
+		clock.advance(Duration.ofMinutes(2));
+		assertThat(store.getAttempts("carol")).isEqualTo(2);
+
+		clock.advance(Duration.ofMinutes(1));
+		assertThat(store.getAttempts("carol")).isZero();
+	}
+
+	@Test
+	void inMemoryStoreRejectsBucketsShorterThanAMillisecond() {
+		assertThatThrownBy(() -> new InMemoryLoginAttemptStore(Duration.ofMillis(10), 15, 16, Clock.systemUTC()))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new InMemoryLoginAttemptStore(15, 0, 16))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void inMemoryStoreCountsWithMillisecondBuckets() {
+		MutableClock clock = new MutableClock();
+		InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(Duration.ofMillis(15), 15, 16, clock);
+
+		store.increment("dave");
+		clock.advance(Duration.ofMillis(5));
+		store.increment("dave");
+		assertThat(store.getAttempts("dave")).isEqualTo(2);
+
+		clock.advance(Duration.ofMillis(10));
+		assertThat(store.getAttempts("dave")).isEqualTo(1);
+	}
+
+	@Test
+	void inMemoryStoreKeepsIncrementsRacingThePurge() throws Exception {
+		InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(15, 15, 16);
+		int keys = 20000;
+		AtomicBoolean done = new AtomicBoolean();
+		Thread purger = new Thread(() -> {
+			while (!done.get()) {
+				store.purgeExpired();
+			}
+		});
+		purger.start();
+		try {
+			for (int i = 0; i < keys; i++) {
+				store.increment("racing-" + i);
+			}
+		} finally {
+			done.set(true);
+			purger.join();
+		}
+
+		for (int i = 0; i < keys; i++) {
+			assertThat(store.getAttempts("racing-" + i)).as("racing-" + i).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void addressIsRejectedAfterTooManyFailures() throws Exception {
+		LoginAttemptService loginAttemptService =
+				new LoginAttemptService(new InMemoryLoginAttemptStore(15, 15, 16), 5, 3, 15, 15,
+						new SimpleMeterRegistry());
+
+		for (int i = 0; i < 3; i++) {
+			loginAttemptService.validateAddress("10.0.0.1");
+			loginAttemptService.addAddressToLoginAttemptCache("10.0.0.1");
+		}
+
+		assertThatThrownBy(() -> loginAttemptService.validateAddress("10.0.0.1"))
+				.isInstanceOf(TooManyLoginAttemptsException.class);
+		loginAttemptService.validateAddress("10.0.0.2");
+		assertThat(loginAttemptService.hasExceededMaxAttempts("10.0.0.1")).isFalse();
+	}
+
+	@Test
+	void jdbcStoreSharesCountsBetweenNodes() {
+		JdbcLoginAttemptStore firstNode = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 0);
+		JdbcLoginAttemptStore secondNode = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 0);
+
+		firstNode.increment("dave");
+		firstNode.increment("dave");
+		secondNode.increment("dave");
+		assertThat(secondNode.getAttempts("dave")).isEqualTo(1);
+
+		firstNode.flush();
+		secondNode.flush();
+		assertThat(firstNode.getAttempts("dave")).isEqualTo(3);
+		assertThat(secondNode.getAttempts("dave")).isEqualTo(3);
+
+		secondNode.reset("dave");
+		secondNode.flush();
+		assertThat(firstNode.getAttempts("dave")).isZero();
+	}
+
+	@Test
+	void jdbcStoreBatchesIncrementsUntilFlush() {
+		JdbcLoginAttemptStore store = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 60000);
+
+		for (int i = 0; i < 10; i++) {
+			store.increment("erin");
+		}
+		assertThat(rowAttempts("erin")).isNull();
+
+		store.flush();
+		assertThat(rowAttempts("erin")).isEqualTo(10);
+		assertThat(store.getAttempts("erin")).isEqualTo(10);
+	}
+
+	@Test
+	void jdbcStoreFallsBackToTheLocalCountWhenTheDatabaseFails() {
+		JdbcTemplate failing = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:failing-login-attempts;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+		failing.execute("CREATE TABLE login_attempt (attempt_key VARCHAR(255), bucket BIGINT, attempts INT, "
+				+ "PRIMARY KEY (attempt_key, bucket))");
+		JdbcLoginAttemptStore store = new JdbcLoginAttemptStore(failing, 15, 15, 0);
+
+		store.increment("frank");
+		store.increment("frank");
+		store.flush();
+		assertThat(store.getAttempts("frank")).isEqualTo(2);
+
+		failing.execute("DROP TABLE login_attempt");
+		assertThat(store.increment("frank")).isEqualTo(3);
+		store.flush();
+		assertThat(store.getAttempts("frank")).isEqualTo(3);
+
+		store.reset("frank");
+		assertThat(store.getAttempts("frank")).isZero();
+	}
+
+	@Test
+	void jdbcStoreCountDoesNotDropWhileFlushing() throws Exception {
+		JdbcLoginAttemptStore store = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 60000);
+		assertThat(store.getAttempts("grace")).isZero();
+		AtomicBoolean flushing = new AtomicBoolean(true);
+		Thread flusher = new Thread(() -> {
+			while (flushing.get()) {
+				store.flush();
+			}
+		});
+		flusher.start();
+		try {
+			for (int i = 1; i <= 200; i++) {
+				assertThat(store.increment("grace")).isGreaterThanOrEqualTo(i);
+				assertThat(store.getAttempts("grace")).isGreaterThanOrEqualTo(i);
+			}
+		} finally {
+			flushing.set(false);
+			flusher.join();
+		}
+		store.flush();
+		assertThat(store.getAttempts("grace")).isEqualTo(200);
+		assertThat(rowAttempts("grace")).isEqualTo(200);
+	}
+
+	private Integer rowAttempts(String key) {
+		return jdbcTemplate.query("SELECT SUM(attempts) FROM login_attempt WHERE attempt_key = ?",
+				rs -> rs.next() ? (Integer) rs.getObject(1, Integer.class) : null, key);
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
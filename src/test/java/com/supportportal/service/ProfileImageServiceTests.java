@@ -0,0 +1,181 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import com.google.common.hash.Hashing;
+import com.supportportal.domain.StoredImage;
+import com.supportportal.exception.domain.ImageTooLargeException;
+import com.supportportal.exception.domain.InvalidImageException;
+import com.supportportal.service.impl.LocalImageStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProfileImageServiceTests {
+
+	@TempDir
+	Path imageFolder;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private LocalImageStore imageStore;
+
+	private ProfileImageService profileImageService;
+
+	@BeforeEach
+	void setUp() {
+		imageStore = new LocalImageStore(imageFolder.toString());
+		profileImageService = new ProfileImageService(imageStore, new int[] { 64, 128, 512 },
+				DataSize.ofKilobytes(512), 2_000_000, 0.85f, 1, 4, 1, DataSize.ofKilobytes(256),
+				DataSize.ofKilobytes(64), true, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		profileImageService.shutdown();
+	}
+
+	@Test
+	void uploadIsStoredWithOneThumbnailPerSize() throws IOException {
+		MockMultipartFile upload = png(1000, 800);
+		String imageId = profileImageService.saveProfileImage(upload);
+
+		assertThat(imageId).isEqualTo(Hashing.sha256().hashBytes(upload.getBytes()).toString());
+		assertThat(dimensions(imageStore.find(imageId))).containsExactly(1000, 800);
+		assertThat(dimensions(imageStore.find(imageId + "-512"))).containsExactly(512, 410);
+		assertThat(dimensions(imageStore.find(imageId + "-128"))).containsExactly(128, 102);
+		assertThat(dimensions(imageStore.find(imageId + "-64"))).containsExactly(64, 51);
+	}
+
+	@Test
+	void identicalUploadsShareOneImage() throws IOException {
+		String first = profileImageService.saveProfileImage(png(300, 200));
+		Path stored = imageStore.find(first).getPath();
+		long lastModified = Files.getLastModifiedTime(stored).toMillis();
+
+		String second = profileImageService.saveProfileImage(png(300, 200));
+
+		assertThat(second).isEqualTo(first);
+		assertThat(Files.getLastModifiedTime(stored).toMillis()).isEqualTo(lastModified);
+		assertThat(profileImageService.saveProfileImage(png(200, 300))).isNotEqualTo(first);
+	}
+
+	@Test
+	void sizeResolvesToTheSmallestThumbnailThatFits() throws IOException {
+		String imageId = profileImageService.saveProfileImage(png(600, 600));
+
+		assertThat(profileImageService.findProfileImage(imageId, 40).getETag()).isEqualTo(imageId + "-64");
+		assertThat(profileImageService.findProfileImage(imageId, 100).getETag()).isEqualTo(imageId + "-128");
+		assertThat(profileImageService.findProfileImage(imageId, 2000).getETag()).isEqualTo(imageId);
+		assertThat(profileImageService.findProfileImage(imageId, null).getETag()).isEqualTo(imageId);
+	}
+
+	@Test
+	void unknownOrMalformedImageIdIsNotFound() throws IOException {
+		assertThat(profileImageService.findProfileImage("0".repeat(64), null)).isNull();
+		assertThat(profileImageService.findProfileImage("../../etc/passwd", null)).isNull();
+	}
+
+	@Test
+	void oversizedUploadIsRejectedBeforeDecoding() throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("profileImage", "big.png", "image/png",
+				new byte[(int) DataSize.ofKilobytes(513).toBytes()]);
+
+		assertThatThrownBy(() -> profileImageService.saveProfileImage(upload))
+				.isInstanceOf(ImageTooLargeException.class);
+		try (var files = Files.list(imageFolder)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void imageWithTooManyPixelsIsRejected() {
+		assertThatThrownBy(() -> profileImageService.saveProfileImage(png(2000, 1500)))
+				.isInstanceOf(ImageTooLargeException.class);
+	}
+
+	@Test
+	void uploadThatIsNotAnImageIsRejected() {
+		MockMultipartFile upload = new MockMultipartFile("profileImage", "notes.png", "image/png",
+				"not an image".getBytes());
+
+		assertThatThrownBy(() -> profileImageService.saveProfileImage(upload))
+				.isInstanceOf(InvalidImageException.class);
+	}
+
+	@Test
+	void smallImagesAreServedFromMemoryUntilDeleted() throws IOException {
+		String imageId = profileImageService.saveProfileImage(png(300, 300));
+
+		StoredImage first = profileImageService.findProfileImage(imageId, 64);
+		StoredImage second = profileImageService.findProfileImage(imageId, 50);
+		assertThat(first.getContent()).isNotNull();
+		assertThat(second).isSameAs(first);
+		assertThat(meterRegistry.get("profile.image.cache.resident.bytes").gauge().value())
+				.isEqualTo(first.getContentLength());
+		assertThat(meterRegistry.get("profile.image.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+
+		profileImageService.deleteProfileImage(imageId);
+		assertThat(profileImageService.findProfileImage(imageId, 64)).isNull();
+		assertThat(imageStore.exists(imageId + "-64")).isFalse();
+		assertThat(meterRegistry.get("profile.image.cache.resident.bytes").gauge().value()).isZero();
+	}
+
+	@Test
+	void defaultImageIsPinnedInMemory() throws IOException {
+		imageStore.put("default", png(100, 100).getBytes());
+		StoredImage pinned = profileImageService.findDefaultImage(null);
+
+		imageStore.delete("default");
+
+		assertThat(profileImageService.findDefaultImage(null)).isSameAs(pinned);
+		assertThat(pinned.getContent().isDirect()).isTrue();
+	}
+
+	@Test
+	void bundledDefaultImageIsSeededWithItsThumbnails() throws IOException {
+		profileImageService.seedDefaultImage();
+
+		assertThat(dimensions(imageStore.find("default"))).containsExactly(512, 512);
+		assertThat(dimensions(imageStore.find("default-64"))).containsExactly(64, 64);
+		assertThat(profileImageService.findDefaultImage(100).getContentLength())
+				.isEqualTo(imageStore.find("default-128").getContentLength());
+	}
+
+	@Test
+	void seedingKeepsADefaultImageThatIsAlreadyStored() throws IOException {
+		byte[] replacement = png(100, 100).getBytes();
+		imageStore.put("default", replacement);
+
+		profileImageService.seedDefaultImage();
+
+		assertThat(Files.readAllBytes(imageStore.find("default").getPath())).isEqualTo(replacement);
+		assertThat(imageStore.exists("default-64")).isFalse();
+	}
+
+	private static MockMultipartFile png(int width, int height) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", outputStream);
+		return new MockMultipartFile("profileImage", "upload.png", "image/png", outputStream.toByteArray());
+	}
+
+	private static int[] dimensions(StoredImage storedImage) throws IOException {
+		BufferedImage image = ImageIO.read(storedImage.getPath().toFile());
+		return new int[] { image.getWidth(), image.getHeight() };
+	}
+}
@@ -0,0 +1,168 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.repository.UserRepository;
+import com.supportportal.service.impl.JdbcUserCacheInvalidationChannel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class UserCacheTests {
+
+	private static final String RENAME_FIRST_NAME_SQL = "UPDATE user SET first_name = ? WHERE id = ?";
+	private static final String CHANGE_PASSWORD_SQL = "UPDATE user SET password = ?, is_not_locked = ? WHERE id = ?";
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserService userService;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.findUserByUsername("cache-user");
+		if (user == null) {
+			user = new User();
+			user.setUserId("4000000001");
+			user.setUsername("cache-user");
+			user.setEmail("cache-user@example.com");
+			user.setPassword("not-a-real-hash");
+			user.setJoinDate(new Date());
+			user.setActive(true);
+			user.setNotLocked(true);
+			user.setRole(Role.ROLE_USER.name());
+		}
+		user.setFirstName("Cached");
+		user = userRepository.save(user);
+	}
+
+	@Test
+	void lookupsAreServedFromTheCacheUnderEveryKey() {
+		UserCache userCache = userCache(Optional.empty());
+		userCache.findByUsername("cache-user");
+
+		jdbcTemplate.update(RENAME_FIRST_NAME_SQL, "Changed", user.getId());
+
+		assertThat(userCache.findByUsername("cache-user").getFirstName()).isEqualTo("Cached");
+		assertThat(userCache.findByEmail("cache-user@example.com").getFirstName()).isEqualTo("Cached");
+		assertThat(userCache.findByUserId("4000000001").getFirstName()).isEqualTo("Cached");
+		assertThat(userCache.findSummaryByUsername("cache-user").getFirstName()).isEqualTo("Cached");
+		assertThat(meterRegistry.get("user.cache.hit.ratio").gauge().value()).isEqualTo(0.8);
+
+		userCache.evict(user.getId());
+		assertThat(userCache.findByEmail("cache-user@example.com").getFirstName()).isEqualTo("Changed");
+	}
+
+	@Test
+	void callersGetTheirOwnCopy() {
+		UserCache userCache = userCache(Optional.empty());
+
+		userCache.findByUsername("cache-user").setFirstName("Mutated");
+
+		assertThat(userCache.findByUsername("cache-user").getFirstName()).isEqualTo("Cached");
+	}
+
+	@Test
+	void updatingAUserThroughTheServiceEvictsIt() throws Exception {
+		assertThat(userService.findUserByUsername("cache-user").getFirstName()).isEqualTo("Cached");
+
+		userService.UpdateUser("cache-user", "Updated", "User", "cache-user", "cache-user@example.com",
+				Role.ROLE_USER.name(), true, true, null);
+
+		assertThat(userService.findUserByUsername("cache-user").getFirstName()).isEqualTo("Updated");
+		assertThat(userService.findUserSummaryByUsername("cache-user").getFirstName()).isEqualTo("Updated");
+	}
+
+	@Test
+	void authenticationAndWritesIgnoreAStaleCachedUser() throws Exception {
+		user.setPassword("not-a-real-hash");
+		user.setNotLocked(true);
+		user = userRepository.save(user);
+		assertThat(userService.findUserByUsername("cache-user").getPassword()).isEqualTo("not-a-real-hash");
+
+		jdbcTemplate.update(CHANGE_PASSWORD_SQL, "changed-on-another-node", false, user.getId());
+
+		UserDetails userDetails = ((UserDetailsService) userService).loadUserByUsername("cache-user");
+		assertThat(userDetails.getPassword()).isEqualTo("changed-on-another-node");
+		assertThat(userDetails.isAccountNonLocked()).isFalse();
+
+		userService.UpdateUser("cache-user", "Renamed", "User", "cache-user", "cache-user@example.com",
+				Role.ROLE_USER.name(), false, true, null);
+		User stored = userRepository.findUserByUsername("cache-user");
+		assertThat(stored.getFirstName()).isEqualTo("Renamed");
+		assertThat(stored.getPassword()).isEqualTo("changed-on-another-node");
+	}
+
+	@Test
+	void evictionLeavesOtherUsersCached() {
+		UserCache userCache = userCache(Optional.empty());
+		User other = userRepository.findUserByUsername("cache-other");
+		if (other == null) {
+			other = new User();
+			other.setUserId("4000000002");
+			other.setUsername("cache-other");
+			other.setEmail("cache-other@example.com");
+			other.setPassword("not-a-real-hash");
+			other.setFirstName("Other");
+			other.setJoinDate(new Date());
+			other.setActive(true);
+			other.setNotLocked(true);
+			other.setRole(Role.ROLE_USER.name());
+			other = userRepository.save(other);
+		}
+		userCache.findByUsername("cache-user");
+		userCache.findByUsername("cache-other");
+		jdbcTemplate.update(RENAME_FIRST_NAME_SQL, "Changed", user.getId());
+		jdbcTemplate.update(RENAME_FIRST_NAME_SQL, "Changed", other.getId());
+
+		userCache.evict(user.getId());
+
+		assertThat(userCache.findByEmail("cache-user@example.com").getFirstName()).isEqualTo("Changed");
+		assertThat(userCache.findByUserId("4000000001").getFirstName()).isEqualTo("Changed");
+		assertThat(userCache.findByEmail("cache-other@example.com").getFirstName()).isEqualTo("Other");
+	}
+
+	@Test
+	void evictionReachesOtherNodesThroughTheJdbcChannel() {
+		JdbcUserCacheInvalidationChannel channel = new JdbcUserCacheInvalidationChannel(jdbcTemplate, 10000, 3600000);
+		JdbcUserCacheInvalidationChannel otherChannel = new JdbcUserCacheInvalidationChannel(jdbcTemplate, 10000,
+				3600000);
+		UserCache userCache = userCache(Optional.of(channel));
+		UserCache otherUserCache = userCache(Optional.of(otherChannel));
+		otherChannel.poll();
+		otherUserCache.findByUsername("cache-user");
+
+		jdbcTemplate.update(RENAME_FIRST_NAME_SQL, "Changed", user.getId());
+		userCache.evict(user.getId());
+		assertThat(otherUserCache.findByUsername("cache-user").getFirstName()).isEqualTo("Cached");
+
+		otherChannel.poll();
+		assertThat(otherUserCache.findByUsername("cache-user").getFirstName()).isEqualTo("Changed");
+	}
+
+	private UserCache userCache(Optional<UserCacheInvalidationChannel> invalidationChannel) {
+		return new UserCache(userRepository, invalidationChannel, true, 100, Duration.ofMinutes(10), meterRegistry);
+	}
+}
@@ -0,0 +1,108 @@
+package com.supportportal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.supportportal.domain.User;
+import com.supportportal.enumeration.Role;
+import com.supportportal.exception.domain.EmailExistException;
+import com.supportportal.exception.domain.UsernameExistException;
+import com.supportportal.repository.UserRepository;
+
+@SpringBootTest
+class UserServiceTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		if (userRepository.findUserByUsername("taken-user") == null) {
+			userRepository.save(user("6000000001", "taken-user", "taken-user@example.com"));
+		}
+	}
+
+	@Test
+	void registeringATakenUsernameOrEmailIsRejected() {
+		assertThatThrownBy(() -> userService.register("New", "User", "taken-user", "new-user@example.com"))
+				.isInstanceOf(UsernameExistException.class);
+		assertThatThrownBy(() -> userService.register("New", "User", "new-user", "taken-user@example.com"))
+				.isInstanceOf(EmailExistException.class);
+		assertThatThrownBy(() -> userService.register("New", "User", "taken-user", "taken-user@example.com"))
+				.isInstanceOf(UsernameExistException.class);
+		assertThat(userRepository.findUserByUsername("new-user")).isNull();
+	}
+
+	@Test
+	void aUsernameTakenByAConcurrentRegistrationIsRejectedByTheConstraint() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		try {
+			Future<?> first = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				userRepository.saveAndFlush(user("6000000002", "racing-user", "racing-user@example.com"));
+				inserted.countDown();
+				await(commit);
+			}));
+			assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+			Future<User> second = executor.submit(() -> userService.addNewUse("Racing", "User", "racing-user",
+					"other-racing-user@example.com", Role.ROLE_USER.name(), true, true, null));
+			Thread.sleep(200);
+			commit.countDown();
+			first.get(10, TimeUnit.SECONDS);
+
+			assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(UsernameExistException.class);
+			assertThat(userRepository.findUserByEmail("other-racing-user@example.com")).isNull();
+		} finally {
+			commit.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static User user(String userId, String username, String email) {
+		User user = new User();
+		user.setUserId(userId);
+		user.setFirstName("Taken");
+		user.setLastName("User");
+		user.setUsername(username);
+		user.setEmail(email);
+		user.setPassword("not-a-real-hash");
+		user.setJoinDate(new Date());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user.setRole(Role.ROLE_USER.name());
+		return user;
+	}
+}
@@ -0,0 +1,70 @@
+package com.supportportal.utility;
+
+import static com.supportportal.constant.SecurityConstant.AUTHORITIES;
+import static com.supportportal.constant.SecurityConstant.GET_ARRAYS_LLC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.supportportal.domain.VerifiedToken;
+import com.supportportal.enumeration.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JWTTokenCacheTests {
+
+	private static final String SECRET = "jwtTokenCacheTestsSecret";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final JWTTokenProvider jwtTokenProvider = new JWTTokenProvider(SECRET);
+
+	@Test
+	void aCachedTokenFailsVerificationOnceItExpires() throws InterruptedException {
+		JWTTokenCache jwtTokenCache = new JWTTokenCache(jwtTokenProvider, true, 10, 30, meterRegistry);
+		String token = token("expiring-user", new Date(System.currentTimeMillis() + 2_000));
+
+		VerifiedToken verifiedToken = jwtTokenCache.verifyToken(token);
+		assertThat(jwtTokenCache.verifyToken(token)).isSameAs(verifiedToken);
+		assertThat(verifications("valid")).isEqualTo(1);
+
+		Thread.sleep(Math.max(0, verifiedToken.getExpiresAt().getTime() - System.currentTimeMillis()) + 50);
+
+		assertThatThrownBy(() -> jwtTokenCache.verifyToken(token)).isInstanceOf(TokenExpiredException.class);
+		assertThat(verifications("invalid")).isEqualTo(1);
+	}
+
+	@Test
+	void theCacheKeepsNoMoreThanItsMaximumSize() {
+		JWTTokenCache jwtTokenCache = new JWTTokenCache(jwtTokenProvider, true, 2, 30, meterRegistry);
+		Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+		for (int i = 0; i < 10; i++) {
+			jwtTokenCache.verifyToken(token("user-" + i, expiresAt));
+		}
+
+		assertThat(meterRegistry.get("cache.size").tag("cache", "jwt.token.cache").gauge().value()).isLessThanOrEqualTo(2);
+		assertThat(meterRegistry.get("cache.evictions").tag("cache", "jwt.token.cache").functionCounter().count())
+				.isGreaterThanOrEqualTo(8);
+		assertThat(verifications("valid")).isEqualTo(10);
+	}
+
+	private long verifications(String result) {
+		return meterRegistry.get("jwt.verification").tag("result", result).timer().count();
+	}
+
+	private static String token(String subject, Date expiresAt) {
+		return JWT.create()
+				.withIssuer(GET_ARRAYS_LLC)
+				.withSubject(subject)
+				.withArrayClaim(AUTHORITIES, Role.ROLE_USER.getAuthorities())
+				.withExpiresAt(expiresAt)
+				.sign(Algorithm.HMAC512(SECRET.getBytes()));
+	}
+}